@@ -1,12 +1,15 @@
 package rc.maces;
 
 import org.bukkit.plugin.java.JavaPlugin;
+import rc.maces.abilities.earth.BuddyUpAbility;
 import rc.maces.commands.*;
 import rc.maces.commands.ScanMacesCommand;
+import rc.maces.damage.DamageDispatcher;
 import rc.maces.listeners.*;
 import rc.maces.managers.*;
 import rc.maces.recipes.RecipeManager;
 import rc.maces.tasks.ActionBarTask;
+import rc.maces.tasks.DeferredActionWheel;
 
 public class Main extends JavaPlugin {
 
@@ -15,6 +18,11 @@ public class Main extends JavaPlugin {
     private MaceManager maceManager;
     private RecipeManager recipeManager;
     private TrustManager trustManager;
+    private DeferredActionWheel deferredActionWheel;
+    private CombatJournal combatJournal;
+    private CrowdControlManager crowdControlManager;
+    private TemporaryBlockManager temporaryBlockManager;
+    private ParticleBudget particleBudget;
     private CombatTimer combatTimer;
     private PassiveEffectsListener passiveEffectsListener;
     private CraftingListener craftingListener;
@@ -23,32 +31,56 @@ public class Main extends JavaPlugin {
     private MovementPreventionListener movementPreventionListener;
     private CombatCommandBlocker combatCommandBlocker;
     private ElytraDisabling elytraDisabling;
+    private DamageDispatcher damageDispatcher;
 
     @Override
     public void onEnable() {
+        saveDefaultConfig();
+
+        // Shared wheel for one-shot delayed actions (block reverts, impacts, expiries)
+        deferredActionWheel = new DeferredActionWheel(this);
+        deferredActionWheel.start();
+
+        // Background writer for combat events (combat-logs folder, /combat log)
+        combatJournal = new CombatJournal(this);
+        combatJournal.start();
+
+        // Roots and slows from abilities, advanced in one tick loop
+        crowdControlManager = new CrowdControlManager(this);
+        crowdControlManager.start();
+
+        // Temporary ability blocks (obsidian, cobwebs); anything a previous run left behind is put back
+        // on the first tick, once worlds are loaded (we load at STARTUP)
+        temporaryBlockManager = new TemporaryBlockManager(this, deferredActionWheel);
+        temporaryBlockManager.start();
+
+        // Ability particles, sent only to nearby players and capped per player each tick
+        particleBudget = new ParticleBudget(this);
+
         // Initialize managers in correct order
         cooldownManager = new CooldownManager();
         elementManager = new ElementManager(this);
-        trustManager = new TrustManager(this);
+        trustManager = new TrustManager(this, deferredActionWheel);
 
         // Initialize combat timer after trust manager
-        combatTimer = new CombatTimer(this, trustManager);
+        combatTimer = new CombatTimer(this, trustManager, combatJournal);
 
         // Initialize elytra disabling after both combatTimer and trustManager exist
         elytraDisabling = new ElytraDisabling(combatTimer, trustManager, this);
 
-        maceManager = new MaceManager(this, cooldownManager, trustManager);
+        maceManager = new MaceManager(this, cooldownManager, trustManager, deferredActionWheel, combatJournal,
+                crowdControlManager, temporaryBlockManager, particleBudget);
         recipeManager = new RecipeManager(this, maceManager);
 
         // Initialize crafting listener (needs to be done before command registration)
-        craftingListener = new CraftingListener(this, recipeManager, elementManager);
+        craftingListener = new CraftingListener(this, recipeManager, elementManager, maceManager);
 
         // Initialize security listeners
         craftingRestrictionListener = new CraftingRestrictionListener(maceManager, this);
         heavyCoreMonitor = new HeavyCoreMonitor(this);
 
         // Initialize movement prevention listener
-        movementPreventionListener = new MovementPreventionListener();
+        movementPreventionListener = new MovementPreventionListener(this, crowdControlManager);
 
         // Initialize combat command blocker
         combatCommandBlocker = new CombatCommandBlocker(combatTimer);
@@ -78,6 +110,7 @@ public class Main extends JavaPlugin {
         getCommand("trustlist").setExecutor(new TrustListCommand(trustManager));
         getCommand("trustaccept").setExecutor(new TrustAcceptCommand(trustManager));
         getCommand("trustdeny").setExecutor(new TrustDenyCommand(trustManager));
+        getCommand("ally").setExecutor(new AllyCommand(trustManager.getAllyGroups()));
 
         // Register trust debug command (admin only)
         getCommand("trustdebug").setExecutor(new TrustDebugCommand(trustManager));
@@ -94,14 +127,20 @@ public class Main extends JavaPlugin {
         getCommand("safezone").setExecutor(new SafeZoneCommand(combatTimer));
 
         // Register event listeners
+        MaceListener maceListener = new MaceListener(maceManager, elementManager, trustManager);
         getServer().getPluginManager().registerEvents(
-                new MaceListener(maceManager, elementManager, trustManager), this);
+                maceListener, this);
         getServer().getPluginManager().registerEvents(
                 craftingListener, this);
         getServer().getPluginManager().registerEvents(
                 new PlayerJoinListener(elementManager), this);
         getServer().getPluginManager().registerEvents(
                 new MacePickupListener(maceManager, elementManager), this);
+        getServer().getPluginManager().registerEvents(
+                maceManager.getHeldMaceTracker(), this);
+        // Players already online after a reload never get the join upgrade of legacy maces
+        getServer().getOnlinePlayers().forEach(maceManager::tagLegacyMaces);
+        maceManager.getHeldMaceTracker().refreshAll();
 
         getServer().getPluginManager().registerEvents(
                 craftingRestrictionListener, this);
@@ -116,6 +155,15 @@ public class Main extends JavaPlugin {
         getServer().getPluginManager().registerEvents(
                 combatTimer, this);
 
+        // Single damage pipeline: protection and combat tagging, then mace effects, then golems
+        damageDispatcher = new DamageDispatcher(trustManager, combatTimer, maceManager.getHeldMaceTracker());
+        damageDispatcher.register(DamageDispatcher.ORDER_PROTECTION, combatTimer::handleDamage);
+        damageDispatcher.register(DamageDispatcher.ORDER_EFFECTS, maceListener::handleDamage);
+        damageDispatcher.register(DamageDispatcher.ORDER_SUMMONS,
+                context -> BuddyUpAbility.handleDamage(context, trustManager));
+        getServer().getPluginManager().registerEvents(
+                damageDispatcher, this);
+
         // Register ElytraDisabling listener (CRITICAL for elytra blocking)
         getServer().getPluginManager().registerEvents(
                 elytraDisabling, this);
@@ -130,6 +178,9 @@ public class Main extends JavaPlugin {
         // Register recipes
         recipeManager.registerAllRecipes();
 
+        // Drain expired cooldowns every tick (fires AbilityReadyEvent)
+        cooldownManager.startExpiryTask(this);
+
         // Start action bar task
         new ActionBarTask(maceManager).runTaskTimer(this, 0L, 1L);
 
@@ -159,7 +210,6 @@ public class Main extends JavaPlugin {
         // Plugin startup messages
         getLogger().info("Maces plugin enabled!");
         getLogger().info("Registered " + recipeManager.getRecipeCount() + " custom recipes.");
-        elytraDisabling.startElytraMonitoring(); // Start elytra monitoring
         getLogger().info("Combat timer system enabled!");
         getLogger().info("Elytra blocking system enabled!");
     }
@@ -183,10 +233,41 @@ public class Main extends JavaPlugin {
             craftingListener.onDisable();
         }
 
+        if (crowdControlManager != null) {
+            crowdControlManager.releaseAll(); // Restore walk speeds and effects
+        }
+        if (temporaryBlockManager != null) {
+            temporaryBlockManager.restoreAll(); // Nothing left to replay on the next start
+        }
+
+        if (combatJournal != null) {
+            combatJournal.shutdown(); // Writes out anything still queued
+        }
+
         getLogger().info("Maces plugin disabled!");
     }
 
     // Getters for managers
+    public DeferredActionWheel getDeferredActionWheel() {
+        return deferredActionWheel;
+    }
+
+    public CombatJournal getCombatJournal() {
+        return combatJournal;
+    }
+
+    public CrowdControlManager getCrowdControlManager() {
+        return crowdControlManager;
+    }
+
+    public TemporaryBlockManager getTemporaryBlockManager() {
+        return temporaryBlockManager;
+    }
+
+    public ParticleBudget getParticleBudget() {
+        return particleBudget;
+    }
+
     public CooldownManager getCooldownManager() {
         return cooldownManager;
     }
@@ -211,6 +292,10 @@ public class Main extends JavaPlugin {
         return combatTimer;
     }
 
+    public DamageDispatcher getDamageDispatcher() {
+        return damageDispatcher;
+    }
+
     public PassiveEffectsListener getPassiveEffectsListener() {
         return passiveEffectsListener;
     }
@@ -11,8 +11,14 @@ import rc.maces.abilities.fire.ObsidianCreationAbility;
 import rc.maces.abilities.water.WaterGeyserAbility;
 import rc.maces.abilities.water.WaterHealAbility;
 import rc.maces.managers.CooldownManager;
+import rc.maces.managers.CrowdControlManager;
+import rc.maces.managers.HudMode;
 import rc.maces.managers.MaceManager;
+import rc.maces.managers.MaceType;
+import rc.maces.managers.ParticleBudget;
+import rc.maces.managers.TemporaryBlockManager;
 import rc.maces.managers.TrustManager;
+import rc.maces.tasks.EffectTimelineEngine;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -21,31 +27,67 @@ public class AbilityManager {
 
     private final Map<String, BaseAbility> abilities;
     private final MaceManager maceManager;
+    private final CooldownManager cooldownManager;
 
     public AbilityManager(JavaPlugin plugin, CooldownManager cooldownManager, MaceManager maceManager, TrustManager trustManager) {
         this.abilities = new HashMap<>();
         this.maceManager = maceManager;
+        this.cooldownManager = cooldownManager;
+        // Shared by every timed ability effect, advanced by the deferred action wheel
+        EffectTimelineEngine timelines = new EffectTimelineEngine(plugin, maceManager.getDeferredActionWheel());
+        TargetSelector targetSelector = new TargetSelector(trustManager);
+        CrowdControlManager crowdControl = maceManager.getCrowdControlManager();
+        TemporaryBlockManager temporaryBlocks = maceManager.getTemporaryBlockManager();
+        ParticleBudget particles = maceManager.getParticleBudget();
 
         // Register all abilities with TrustManager
 
         //AIR - WindShotAbility only needs cooldownManager
         registerAbility(new WindShotAbility(cooldownManager));
-        registerAbility(new WindStruckAbility(cooldownManager, plugin, trustManager));
+        registerAbility(new WindStruckAbility(cooldownManager, plugin, targetSelector, crowdControl, temporaryBlocks));
         //FIRE
-        registerAbility(new ObsidianCreationAbility(cooldownManager, plugin, trustManager));
-        registerAbility(new MeteorsAbility(cooldownManager, plugin, trustManager));
-        //WATER - WaterHealAbility only needs cooldownManager
-        registerAbility(new WaterHealAbility(cooldownManager));
-        registerAbility(new WaterGeyserAbility(cooldownManager, plugin, trustManager));
+        registerAbility(new ObsidianCreationAbility(cooldownManager, targetSelector, temporaryBlocks, particles));
+        registerAbility(new MeteorsAbility(cooldownManager, targetSelector, timelines, particles,
+                MeteorsAbility.ProjectileMode.fromConfig(plugin.getConfig().getString("meteors.projectile-mode"))));
+        //WATER
+        registerAbility(new WaterHealAbility(cooldownManager, particles));
+        registerAbility(new WaterGeyserAbility(cooldownManager, timelines, targetSelector, particles));
         //EARTH
-        registerAbility(new BuddyUpAbility(cooldownManager, plugin, trustManager));
-        registerAbility(new VineTrapAbility(cooldownManager, plugin, trustManager));
+        registerAbility(new BuddyUpAbility(cooldownManager, timelines, trustManager));
+        registerAbility(new VineTrapAbility(cooldownManager, plugin, trustManager, targetSelector,
+                crowdControl, maceManager.getCombatJournal()));
+
+        // Overlay mode: right-click abilities also push a client cooldown for their mace's group.
+        // Only right-click ones, since a client cooldown also blocks using the item.
+        if (maceManager.getHudMode() == HudMode.COOLDOWN_OVERLAY) {
+            assignClientCooldownGroup(WIND_SHOT, MaceType.AIR);
+            assignClientCooldownGroup(OBSIDIAN_CREATION, MaceType.FIRE);
+            assignClientCooldownGroup(WATER_HEAL, MaceType.WATER);
+            assignClientCooldownGroup(BUDDY_UP, MaceType.EARTH);
+        }
+    }
+
+    private void assignClientCooldownGroup(String abilityKey, MaceType type) {
+        BaseAbility ability = abilities.get(abilityKey);
+        if (ability != null) {
+            ability.assignClientCooldownGroup(maceManager.getCooldownGroup(type));
+        }
     }
 
     private void registerAbility(BaseAbility ability) {
+        // Give the ability its cooldown ordinal so cooldown checks are plain array reads
+        ability.assignAbilityId(cooldownManager.registerAbility(ability.getAbilityKey()));
         abilities.put(ability.getAbilityKey(), ability);
     }
 
+    /**
+     * Get the cooldown ordinal of an ability, or -1 if unknown
+     */
+    public int getAbilityId(String abilityKey) {
+        BaseAbility ability = abilities.get(abilityKey);
+        return ability != null ? ability.getAbilityId() : -1;
+    }
+
     public void executeAbility(Player player, String abilityKey) {
         BaseAbility ability = abilities.get(abilityKey);
         if (ability != null && ability.canUse(player)) {
@@ -1,5 +1,6 @@
 package rc.maces.abilities;
 
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import rc.maces.managers.CooldownManager;
 
@@ -8,6 +9,8 @@ public abstract class BaseAbility {
     protected final String abilityKey;
     protected final int cooldownSeconds;
     protected final CooldownManager cooldownManager;
+    protected int abilityId = -1; // Cooldown ordinal, assigned when registered with AbilityManager
+    protected NamespacedKey clientCooldownGroup; // Set in COOLDOWN_OVERLAY mode for right-click abilities
 
     public BaseAbility(String abilityKey, int cooldownSeconds, CooldownManager cooldownManager) {
         this.abilityKey = abilityKey;
@@ -15,16 +18,29 @@ public abstract class BaseAbility {
         this.cooldownManager = cooldownManager;
     }
 
+    void assignAbilityId(int abilityId) {
+        this.abilityId = abilityId;
+    }
+
+    void assignClientCooldownGroup(NamespacedKey clientCooldownGroup) {
+        this.clientCooldownGroup = clientCooldownGroup;
+    }
+
     public boolean canUse(Player player) {
-        return !cooldownManager.isOnCooldown(player.getUniqueId(), abilityKey);
+        return !cooldownManager.isOnCooldown(player.getUniqueId(), abilityId);
     }
 
     public void setCooldown(Player player) {
-        cooldownManager.setCooldown(player.getUniqueId(), abilityKey, cooldownSeconds * 1000L);
+        cooldownManager.setCooldown(player.getUniqueId(), abilityId, cooldownSeconds * 1000L);
+
+        // One packet per use, the client draws the sweep on the mace itself
+        if (clientCooldownGroup != null) {
+            player.setCooldown(clientCooldownGroup, cooldownSeconds * 20);
+        }
     }
 
     public long getRemainingCooldown(Player player) {
-        return cooldownManager.getRemainingCooldown(player.getUniqueId(), abilityKey);
+        return cooldownManager.getRemainingCooldown(player.getUniqueId(), abilityId);
     }
 
     public abstract void execute(Player player);
@@ -33,6 +49,10 @@ public abstract class BaseAbility {
         return abilityKey;
     }
 
+    public int getAbilityId() {
+        return abilityId;
+    }
+
     public int getCooldownSeconds() {
         return cooldownSeconds;
     }
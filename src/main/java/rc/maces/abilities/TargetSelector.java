@@ -0,0 +1,129 @@
+package rc.maces.abilities;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import rc.maces.managers.TrustManager;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Shared target queries for abilities.
+ * Area abilities ask for every hostile living entity around a point in one call: the caster's
+ * alliances are resolved once per query and the filtering runs inside Paper's typed entity lookup,
+ * so non-living entities are never handed back and every ability excludes the same targets
+ * (the caster, allies, creative and spectator players).
+ * Aimed abilities ask for the single hostile entity closest to the caster's line of sight inside a cone.
+ */
+public class TargetSelector {
+
+    private final TrustManager trustManager;
+
+    public TargetSelector(TrustManager trustManager) {
+        this.trustManager = trustManager;
+    }
+
+    /**
+     * Hostile living entities in a box of the given half-size around center
+     */
+    public Collection<LivingEntity> findHostiles(Player caster, Location center, double radius) {
+        Predicate<UUID> isAlly = trustManager.allyTest(caster.getUniqueId());
+        return center.getWorld().getNearbyLivingEntities(center, radius, radius, radius,
+                entity -> isHostile(caster, entity, isAlly));
+    }
+
+    /**
+     * Filter accepting hostile living entities, for Bukkit queries that take a predicate (ray traces)
+     */
+    public Predicate<Entity> hostileFilter(Player caster) {
+        Predicate<UUID> isAlly = trustManager.allyTest(caster.getUniqueId());
+        return entity -> entity instanceof LivingEntity living && isHostile(caster, living, isAlly);
+    }
+
+    /**
+     * The hostile living entity nearest to the caster's crosshair within range and the given
+     * half-angle (below 90 degrees) of their view direction, or null.
+     * Compares squared distance and dot product against a precomputed cosine threshold,
+     * so candidates cost no square roots, trig or allocations.
+     */
+    public LivingEntity findAimedTarget(Player caster, double range, double maxAngleDegrees,
+                                        Predicate<LivingEntity> filter) {
+        Location eye = caster.getEyeLocation();
+        World world = eye.getWorld();
+        double eyeX = eye.getX();
+        double eyeY = eye.getY();
+        double eyeZ = eye.getZ();
+
+        // Unit view direction from yaw/pitch (same as Location.getDirection, without the Vector)
+        double yaw = Math.toRadians(eye.getYaw());
+        double pitch = Math.toRadians(eye.getPitch());
+        double horizontal = Math.cos(pitch);
+        double dirX = -horizontal * Math.sin(yaw);
+        double dirY = -Math.sin(pitch);
+        double dirZ = horizontal * Math.cos(yaw);
+
+        double rangeSquared = range * range;
+        double cosThreshold = Math.cos(Math.toRadians(Math.min(maxAngleDegrees, 89.0)));
+        double cosThresholdSquared = cosThreshold * cosThreshold;
+
+        Predicate<UUID> isAlly = trustManager.allyTest(caster.getUniqueId());
+        Location scratch = new Location(world, 0, 0, 0);
+        LivingEntity best = null;
+        double bestCosSquared = -1;
+        double bestDistanceSquared = Double.MAX_VALUE;
+
+        for (LivingEntity candidate : world.getNearbyLivingEntities(eye, range, range, range)) {
+            // Aim at the middle of the body rather than the feet
+            candidate.getLocation(scratch);
+            double dx = scratch.getX() - eyeX;
+            double dy = scratch.getY() + candidate.getHeight() * 0.5 - eyeY;
+            double dz = scratch.getZ() - eyeZ;
+
+            double distanceSquared = dx * dx + dy * dy + dz * dz;
+            if (distanceSquared > rangeSquared || distanceSquared == 0) continue;
+
+            double dot = dx * dirX + dy * dirY + dz * dirZ;
+            if (dot <= 0) continue; // Behind the caster
+
+            // cos^2 of the angle to the view direction, compared without a square root
+            double cosSquared = dot * dot / distanceSquared;
+            if (cosSquared < cosThresholdSquared) continue; // Outside the cone
+
+            // Best = closest to the crosshair, then nearest
+            if (cosSquared < bestCosSquared
+                    || (cosSquared == bestCosSquared && distanceSquared >= bestDistanceSquared)) {
+                continue;
+            }
+
+            // Cheap geometry first, trust and caller checks only for the running best
+            if (!isHostile(caster, candidate, isAlly) || (filter != null && !filter.test(candidate))) continue;
+
+            best = candidate;
+            bestCosSquared = cosSquared;
+            bestDistanceSquared = distanceSquared;
+        }
+
+        return best;
+    }
+
+    private static boolean isHostile(Player caster, LivingEntity entity, Predicate<UUID> isAlly) {
+        if (entity == caster) {
+            return false;
+        }
+
+        if (entity instanceof Player player) {
+            GameMode gameMode = player.getGameMode();
+            if (gameMode == GameMode.CREATIVE || gameMode == GameMode.SPECTATOR) {
+                return false;
+            }
+            return !isAlly.test(player.getUniqueId());
+        }
+
+        return true;
+    }
+}
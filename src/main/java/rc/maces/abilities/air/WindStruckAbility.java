@@ -5,16 +5,16 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Sound;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import rc.maces.abilities.BaseAbility;
+import rc.maces.abilities.TargetSelector;
 import rc.maces.managers.CooldownManager;
-import rc.maces.managers.TrustManager;
+import rc.maces.managers.CrowdControlManager;
+import rc.maces.managers.TemporaryBlockManager;
 
 import java.util.Collection;
 
@@ -22,12 +22,17 @@ import java.util.Collection;
 public class WindStruckAbility extends BaseAbility {
 
     private final JavaPlugin plugin;
-    private final TrustManager trustManager;
+    private final TargetSelector targetSelector;
+    private final CrowdControlManager crowdControl;
+    private final TemporaryBlockManager temporaryBlocks;
 
-    public WindStruckAbility(CooldownManager cooldownManager, JavaPlugin plugin, TrustManager trustManager) {
+    public WindStruckAbility(CooldownManager cooldownManager, JavaPlugin plugin, TargetSelector targetSelector,
+                             CrowdControlManager crowdControl, TemporaryBlockManager temporaryBlocks) {
         super("wind_struck", 25, cooldownManager);
         this.plugin = plugin;
-        this.trustManager = trustManager;
+        this.targetSelector = targetSelector;
+        this.crowdControl = crowdControl;
+        this.temporaryBlocks = temporaryBlocks;
     }
 
     @Override
@@ -38,62 +43,37 @@ public class WindStruckAbility extends BaseAbility {
         int affectedTargets = 0;
 
         // UPDATED: Apply effects to ALL living entities (players and mobs) in 8x8 area (except allies)
-        Collection<Entity> nearbyEntities = center.getWorld().getNearbyEntities(center, 4.0, 4.0, 4.0); // 8x8 area (4 block radius)
-        for (Entity entity : nearbyEntities) {
-            if (entity instanceof LivingEntity && entity != player) {
-                LivingEntity target = (LivingEntity) entity;
-
-                // Check trust system - don't affect trusted players
-                if (target instanceof Player && trustManager.isTrusted(player, (Player) target)) {
-                    continue;
-                }
-
-                // Apply slow falling for 5 seconds to ALL living entities
-                target.addPotionEffect(new PotionEffect(PotionEffectType.SLOW_FALLING, 100, 0));
-
-                // Send message only to players
-                if (target instanceof Player) {
-                    ((Player) target).sendMessage(Component.text("💨 You've been Wind Struck!")
-                            .color(NamedTextColor.GRAY));
-                }
-
-                affectedTargets++;
+        // Allies, creative and spectator players are already filtered out
+        Collection<LivingEntity> targets = targetSelector.findHostiles(player, center, 4.0); // 8x8 area (4 block radius)
+        for (LivingEntity target : targets) {
+            // Apply slow falling for 5 seconds to ALL living entities (tracked as a crowd control slow)
+            crowdControl.slow(target, new PotionEffect(PotionEffectType.SLOW_FALLING, 100, 0));
+
+            // Send message only to players
+            if (target instanceof Player) {
+                ((Player) target).sendMessage(Component.text("💨 You've been Wind Struck!")
+                        .color(NamedTextColor.GRAY));
             }
-        }
-
-        // Place cobwebs on affected enemies to trap them
-        for (Entity entity : nearbyEntities) {
-            if (entity instanceof LivingEntity && entity != player) {
-                LivingEntity target = (LivingEntity) entity;
-
-                // Check trust system - don't trap trusted players
-                if (target instanceof Player && trustManager.isTrusted(player, (Player) target)) {
-                    continue;
-                }
-
-                Location targetLoc = target.getLocation();
 
-                // Place cobwebs around the enemy to trap them
-                for (int x = -1; x <= 1; x++) {
-                    for (int z = -1; z <= 1; z++) {
-                        Location cobwebLoc = targetLoc.clone().add(x, 0, z);
-                        if (cobwebLoc.getBlock().getType() == Material.AIR) {
-                            cobwebLoc.getBlock().setType(Material.COBWEB);
+            affectedTargets++;
+        }
 
-                            // Remove cobweb after 3 seconds
-                            new BukkitRunnable() {
-                                @Override
-                                public void run() {
-                                    if (cobwebLoc.getBlock().getType() == Material.COBWEB) {
-                                        cobwebLoc.getBlock().setType(Material.AIR);
-                                    }
-                                }
-                            }.runTaskLater(plugin, 60L);
-                        }
+        // Place cobwebs on affected enemies to trap them, removed after 3 seconds
+        TemporaryBlockManager.Batch cobwebs = temporaryBlocks.batch(center.getWorld(), 60L);
+        for (LivingEntity target : targets) {
+            Location targetLoc = target.getLocation();
+
+            // Place cobwebs around the enemy to trap them
+            for (int x = -1; x <= 1; x++) {
+                for (int z = -1; z <= 1; z++) {
+                    Location cobwebLoc = targetLoc.clone().add(x, 0, z);
+                    if (cobwebLoc.getBlock().getType() == Material.AIR) {
+                        cobwebs.place(cobwebLoc.getBlock(), Material.COBWEB);
                     }
                 }
             }
         }
+        cobwebs.commit();
 
         player.sendMessage(Component.text("💨 WIND STRUCK! Trapped " + affectedTargets + " enemies in webs!")
                 .color(NamedTextColor.WHITE));
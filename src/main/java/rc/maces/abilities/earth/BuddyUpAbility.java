@@ -5,21 +5,21 @@ import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Location;
 import org.bukkit.Sound;
 import org.bukkit.entity.*;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
-import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitRunnable;
 import rc.maces.abilities.BaseAbility;
+import rc.maces.damage.DamageContext;
 import rc.maces.managers.CooldownManager;
 import rc.maces.managers.TrustManager;
+import rc.maces.tasks.EffectTimeline;
+import rc.maces.tasks.EffectTimelineEngine;
 
 import java.util.*;
 
 // UPDATED BuddyUp Ability - Golem persists until 50+ blocks away or new golem summoned
 public class BuddyUpAbility extends BaseAbility {
 
-    private final JavaPlugin plugin;
+    private final EffectTimelineEngine timelines;
     private final TrustManager trustManager;
     private static final Map<UUID, GolemInfo> playerGolems = new HashMap<>();
     private static final Set<UUID> golemUUIDs = new HashSet<>();
@@ -36,9 +36,9 @@ public class BuddyUpAbility extends BaseAbility {
         }
     }
 
-    public BuddyUpAbility(CooldownManager cooldownManager, JavaPlugin plugin, TrustManager trustManager) {
+    public BuddyUpAbility(CooldownManager cooldownManager, EffectTimelineEngine timelines, TrustManager trustManager) {
         super("buddy_up", 25, cooldownManager);
-        this.plugin = plugin;
+        this.timelines = timelines;
         this.trustManager = trustManager;
     }
 
@@ -85,54 +85,48 @@ public class BuddyUpAbility extends BaseAbility {
     }
 
     /**
-     * Start the continuous monitoring task for a golem
+     * Start the continuous monitoring timeline for a golem, checked every 2 seconds (40 ticks)
      */
     private void startGolemMonitoring(Player player, IronGolem golem) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Stop monitoring if golem is dead or invalid
-                if (golem.isDead() || !golem.isValid()) {
-                    cancel();
-                    return;
-                }
-
-                // Stop monitoring if player is offline
-                if (!player.isOnline()) {
-                    cancel();
-                    return;
-                }
+        timelines.play(new EffectTimeline().repeat(40, monitor -> {
+            // Stop monitoring if golem is dead or invalid
+            if (golem.isDead() || !golem.isValid()) {
+                monitor.cancel();
+                return;
+            }
 
-                // If golem is targeting its summoner, clear the target immediately
-                if (golem.getTarget() != null && golem.getTarget().getUniqueId().equals(player.getUniqueId())) {
-                    golem.setTarget(null);
-                    golem.setAggressive(false);
-                }
+            // Stop monitoring if player is offline
+            if (!player.isOnline()) {
+                monitor.cancel();
+                return;
+            }
 
-                // Ensure Strength 2 effect is maintained (reapply if missing)
-                if (!golem.hasPotionEffect(PotionEffectType.STRENGTH)) {
-                    golem.addPotionEffect(new PotionEffect(PotionEffectType.STRENGTH, Integer.MAX_VALUE, 1, false, false));
-                }
+            // If golem is targeting its summoner, clear the target immediately
+            if (golem.getTarget() != null && golem.getTarget().getUniqueId().equals(player.getUniqueId())) {
+                golem.setTarget(null);
+                golem.setAggressive(false);
+            }
 
-                // Check distance from summoner - remove if too far
-                if (golem.getLocation().getWorld().equals(player.getLocation().getWorld())) {
-                    double distance = golem.getLocation().distance(player.getLocation());
+            // Ensure Strength 2 effect is maintained (reapply if missing)
+            if (!golem.hasPotionEffect(PotionEffectType.STRENGTH)) {
+                golem.addPotionEffect(new PotionEffect(PotionEffectType.STRENGTH, Integer.MAX_VALUE, 1, false, false));
+            }
 
-                    if (distance > MAX_DISTANCE) {
-                        // Golem is too far away, remove it
+            // Check distance from summoner - remove if too far
+            if (golem.getLocation().getWorld().equals(player.getLocation().getWorld())) {
+                double distance = golem.getLocation().distance(player.getLocation());
 
-                        removeExistingGolem(player);
-                        cancel();
-                        return;
-                    }
-                } else {
-                    // Different worlds, remove golem
+                if (distance > MAX_DISTANCE) {
+                    // Golem is too far away, remove it
                     removeExistingGolem(player);
-                    cancel();
-                    return;
+                    monitor.cancel();
                 }
+            } else {
+                // Different worlds, remove golem
+                removeExistingGolem(player);
+                monitor.cancel();
             }
-        }.runTaskTimer(plugin, 0L, 40L); // Check every 2 seconds (40 ticks)
+        }));
     }
 
     private void removeExistingGolem(Player player) {
@@ -146,8 +140,38 @@ public class BuddyUpAbility extends BaseAbility {
         }
     }
 
+    // Damage pipeline step (see DamageDispatcher): point golems at whoever their summoner fights
+    public static void handleDamage(DamageContext context, TrustManager trustManager) {
+        if (golemUUIDs.isEmpty()) {
+            return; // No golems, nothing to do
+        }
+
+        // Handle when summoner attacks something - make golem help
+        if (context.isMelee() && context.getAttackerPlayer() != null) {
+            handleSummonerAttack(context, context.getAttackerPlayer());
+        }
+
+        // Handle golem damage to prevent attacking summoner
+        if (context.getVictim() instanceof IronGolem) {
+            handleGolemDamage(context, (IronGolem) context.getVictim(), trustManager);
+        }
+
+        // Handle golem protection for any living entity attacking a player
+        Player victim = context.getVictimPlayer();
+        if (victim != null && context.isMelee()) {
+            LivingEntity damager = context.getAttacker();
+
+            // Don't trigger if the victim is attacking their own golem
+            if (!(damager instanceof IronGolem &&
+                    damager.getCustomName() != null &&
+                    damager.getCustomName().contains(victim.getName()))) {
+                handlePlayerDamage(context, victim);
+            }
+        }
+    }
+
     // Handle when the player gets damaged by ANY living entity (checks 8 block range)
-    public static void handlePlayerDamage(EntityDamageByEntityEvent event, Player victim, TrustManager trustManager) {
+    private static void handlePlayerDamage(DamageContext context, Player victim) {
         GolemInfo golemInfo = playerGolems.get(victim.getUniqueId());
         if (golemInfo == null || golemInfo.golem == null || golemInfo.golem.isDead()) {
             return;
@@ -160,8 +184,8 @@ public class BuddyUpAbility extends BaseAbility {
             return; // Golem is too far away to help
         }
 
-        if (event.getDamager() instanceof LivingEntity) {
-            LivingEntity attacker = (LivingEntity) event.getDamager();
+        if (context.isMelee()) {
+            LivingEntity attacker = context.getAttacker();
 
             // Always prevent golem from attacking its own summoner
             if (attacker.getUniqueId().equals(victim.getUniqueId())) {
@@ -173,8 +197,8 @@ public class BuddyUpAbility extends BaseAbility {
                 return;
             }
 
-            // Check trust system - don't attack trusted players
-            if (attacker instanceof Player && trustManager.isTrusted(victim, (Player) attacker)) {
+            // Check trust system - don't attack trusted players (resolved once by the dispatcher)
+            if (context.isTrusted()) {
                 return;
             }
 
@@ -189,7 +213,7 @@ public class BuddyUpAbility extends BaseAbility {
     }
 
     // Handle when a golem gets damaged - completely prevent retaliation against summoner
-    public static void handleGolemDamage(EntityDamageByEntityEvent event, IronGolem golem, TrustManager trustManager) {
+    private static void handleGolemDamage(DamageContext context, IronGolem golem, TrustManager trustManager) {
         if (!golemUUIDs.contains(golem.getUniqueId())) {
             return; // Not one of our custom golems
         }
@@ -208,13 +232,13 @@ public class BuddyUpAbility extends BaseAbility {
         }
 
         // If the summoner is attacking their own golem, NEVER let the golem retaliate
-        if (event.getDamager().getUniqueId().equals(summoner.getUniqueId())) {
+        if (context.getDamager().getUniqueId().equals(summoner.getUniqueId())) {
             // Immediately clear any target and make golem passive towards summoner
             golem.setTarget(null);
             golem.setAggressive(false);
             return;
-        } else if (event.getDamager() instanceof LivingEntity) {
-            LivingEntity attacker = (LivingEntity) event.getDamager();
+        } else if (context.isMelee()) {
+            LivingEntity attacker = context.getAttacker();
 
             // Check trust system - don't retaliate against trusted players
             if (attacker instanceof Player && trustManager.isTrusted(summoner, (Player) attacker)) {
@@ -237,14 +261,14 @@ public class BuddyUpAbility extends BaseAbility {
     }
 
     // Handle when summoner attacks something - make golem help (checks 15 block range)
-    public static void handleSummonerAttack(EntityDamageByEntityEvent event, Player summoner, TrustManager trustManager) {
+    private static void handleSummonerAttack(DamageContext context, Player summoner) {
         GolemInfo golemInfo = playerGolems.get(summoner.getUniqueId());
         if (golemInfo == null || golemInfo.golem == null || golemInfo.golem.isDead()) {
             return;
         }
 
-        if (event.getEntity() instanceof LivingEntity) {
-            LivingEntity target = (LivingEntity) event.getEntity();
+        if (context.getVictimLiving() != null) {
+            LivingEntity target = context.getVictimLiving();
             IronGolem golem = golemInfo.golem;
 
             // Check if golem is within 15 blocks of the summoner
@@ -257,8 +281,8 @@ public class BuddyUpAbility extends BaseAbility {
                 return;
             }
 
-            // Check trust system - don't attack trusted players
-            if (target instanceof Player && trustManager.isTrusted(summoner, (Player) target)) {
+            // Check trust system - don't attack trusted players (resolved once by the dispatcher)
+            if (context.isTrusted()) {
                 return;
             }
 
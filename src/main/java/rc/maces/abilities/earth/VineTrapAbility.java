@@ -6,54 +6,33 @@ import org.bukkit.Location;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.potion.PotionEffect;
-import org.bukkit.potion.PotionEffectType;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.RayTraceResult;
 import rc.maces.abilities.BaseAbility;
+import rc.maces.abilities.TargetSelector;
+import rc.maces.managers.CombatJournal;
 import rc.maces.managers.CooldownManager;
+import rc.maces.managers.CrowdControlManager;
 import rc.maces.managers.TrustManager;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
 // IMPROVED Vine Trap Ability - Better targeting and entity support
 public class VineTrapAbility extends BaseAbility {
 
+    private static final int TRAP_SECONDS = 5;
+
     private final JavaPlugin plugin;
     private final TrustManager trustManager;
+    private final TargetSelector targetSelector;
+    private final CrowdControlManager crowdControl;
+    private final CombatJournal journal;
 
-    // Static tracking to prevent movement across all instances
-    private static final Map<UUID, VineTrappedData> trappedEntities = new HashMap<>();
-    private static JavaPlugin pluginInstance;
-
-    // Helper class to store trapped entity data
-    private static class VineTrappedData {
-        final Location trapLocation;
-        final float originalWalkSpeed;
-        final float originalFlySpeed;
-        final long trapEndTime;
-        final BukkitTask teleportTask;
-        final BukkitTask releaseTask;
-
-        VineTrappedData(Location location, float walkSpeed, float flySpeed, long endTime, BukkitTask teleportTask, BukkitTask releaseTask) {
-            this.trapLocation = location.clone();
-            this.originalWalkSpeed = walkSpeed;
-            this.originalFlySpeed = flySpeed;
-            this.trapEndTime = endTime;
-            this.teleportTask = teleportTask;
-            this.releaseTask = releaseTask;
-        }
-    }
-
-    public VineTrapAbility(CooldownManager cooldownManager, JavaPlugin plugin, TrustManager trustManager) {
+    public VineTrapAbility(CooldownManager cooldownManager, JavaPlugin plugin, TrustManager trustManager,
+                           TargetSelector targetSelector, CrowdControlManager crowdControl, CombatJournal journal) {
         super("vine_trap", 25, cooldownManager);
         this.plugin = plugin;
         this.trustManager = trustManager;
-
-        // Set the static plugin instance
-        VineTrapAbility.pluginInstance = plugin;
+        this.targetSelector = targetSelector;
+        this.crowdControl = crowdControl;
+        this.journal = journal;
     }
 
     @Override
@@ -93,18 +72,18 @@ public class VineTrapAbility extends BaseAbility {
         }
 
         // Prevent re-trapping
-        if (isEntityTrapped(target.getUniqueId())) {
+        if (crowdControl.isRooted(target.getUniqueId())) {
             player.sendMessage(Component.text("🌿 " + getEntityName(target) + " is already trapped!")
                     .color(NamedTextColor.YELLOW));
             return;
         }
 
         // Trap the target
-        trapEntity(target, 5);
+        trapEntity(target);
 
         // Success messages
         String targetName = getEntityName(target);
-        player.sendMessage(Component.text("🌿 Successfully trapped " + targetName + " for 5 seconds!")
+        player.sendMessage(Component.text("🌿 Successfully trapped " + targetName + " for " + TRAP_SECONDS + " seconds!")
                 .color(NamedTextColor.GREEN));
 
         if (target instanceof Player) {
@@ -118,71 +97,26 @@ public class VineTrapAbility extends BaseAbility {
      */
     private LivingEntity getTargetLivingEntity(Player caster) {
         // Use ray tracing to find the target living entity within 15 blocks (increased range)
+        // Hostile filter skips the caster, allies, creative and spectator players
         RayTraceResult result = caster.getWorld().rayTraceEntities(
                 caster.getEyeLocation(),
                 caster.getEyeLocation().getDirection(),
                 15.0, // Increased from 10 to 15 blocks
                 0.2,   // Entity bounding box expansion
-                entity -> {
-                    // Must be a living entity
-                    if (!(entity instanceof LivingEntity)) return false;
-
-                    // Don't target the caster
-                    if (entity.equals(caster)) return false;
-
-                    LivingEntity living = (LivingEntity) entity;
-
-                    // Don't target dead entities
-                    if (living.isDead() || !living.isValid()) return false;
-
-                    // Don't target already trapped entities
-                    if (isEntityTrapped(living.getUniqueId())) return false;
-
-                    // For players, check trust system
-                    if (living instanceof Player) {
-                        return !trustManager.isTrusted(caster, (Player) living);
-                    }
-
-                    // Allow all other living entities (mobs, animals, etc.)
-                    return true;
-                }
+                targetSelector.hostileFilter(caster).and(entity -> isTrappable((LivingEntity) entity))
         );
 
         if (result != null && result.getHitEntity() instanceof LivingEntity) {
             return (LivingEntity) result.getHitEntity();
         }
 
-        // IMPROVED: If ray tracing fails, try nearby entity detection
-        return caster.getWorld().getNearbyEntities(caster.getLocation(), 8, 8, 8).stream()
-                .filter(entity -> entity instanceof LivingEntity)
-                .map(entity -> (LivingEntity) entity)
-                .filter(living -> {
-                    if (living.equals(caster)) return false;
-                    if (living.isDead() || !living.isValid()) return false;
-                    if (isEntityTrapped(living.getUniqueId())) return false;
-
-                    // Check if player is looking roughly towards the entity
-                    Location playerLoc = caster.getEyeLocation();
-                    Location entityLoc = living.getLocation();
-
-                    // Simple angle check - entity should be roughly in front of player
-                    double angle = Math.toDegrees(playerLoc.getDirection().angle(
-                            entityLoc.toVector().subtract(playerLoc.toVector()).normalize()));
-
-                    if (angle > 60) return false; // Not looking towards entity
-
-                    // Check distance
-                    if (playerLoc.distance(entityLoc) > 8) return false;
-
-                    // Trust check for players
-                    if (living instanceof Player) {
-                        return !trustManager.isTrusted(caster, (Player) living);
-                    }
+        // IMPROVED: If ray tracing fails, pick the best target within 8 blocks and 60 degrees of where the player looks
+        return targetSelector.findAimedTarget(caster, 8, 60, this::isTrappable);
+    }
 
-                    return true;
-                })
-                .findFirst()
-                .orElse(null);
+    private boolean isTrappable(LivingEntity living) {
+        // Don't target dead or already trapped entities
+        return !living.isDead() && living.isValid() && !crowdControl.isRooted(living.getUniqueId());
     }
 
     /**
@@ -200,180 +134,27 @@ public class VineTrapAbility extends BaseAbility {
         }
     }
 
-    // ==================== STATIC METHODS (Enhanced) ====================
-
-    public static boolean isEntityTrapped(UUID entityId) {
-        if (!trappedEntities.containsKey(entityId)) {
-            return false;
-        }
-
-        VineTrappedData data = trappedEntities.get(entityId);
-
-        // Check if the trap has expired
-        if (System.currentTimeMillis() > data.trapEndTime) {
-            // Clean up expired trap
-            releaseEntity(entityId);
-            return false;
-        }
-
-        return true;
-    }
-
-    public static Location getTrapLocation(UUID entityId) {
-        VineTrappedData data = trappedEntities.get(entityId);
-        return data != null ? data.trapLocation.clone() : null;
-    }
-
-    public static void trapEntity(LivingEntity entity, int durationSeconds) {
-        UUID entityId = entity.getUniqueId();
+    /**
+     * Root the entity through the crowd control manager, which holds it in place and releases it
+     */
+    private void trapEntity(LivingEntity entity) {
+        String entityName = getEntityName(entity);
         Location trapLocation = entity.getLocation();
 
-        // Store original speeds (only for players)
-        float originalWalkSpeed = 0.2f; // Default walk speed
-        float originalFlySpeed = 0.1f; // Default fly speed
-
-        if (entity instanceof Player) {
-            Player player = (Player) entity;
-            originalWalkSpeed = player.getWalkSpeed();
-            originalFlySpeed = player.getFlySpeed();
-            // Set speeds to 0 to prevent movement
-            player.setWalkSpeed(0f);
-            player.setFlySpeed(0f);
-        }
-
-        // Apply effects to immobilize all living entities
-        entity.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, durationSeconds * 20, 255, false, false));
-        entity.addPotionEffect(new PotionEffect(PotionEffectType.JUMP_BOOST, durationSeconds * 20, -10, false, false));
-
-        // Calculate trap end time
-        long trapEndTime = System.currentTimeMillis() + (durationSeconds * 1000L);
-
-        // Create repeating task to keep entity at trap location
-        BukkitTask teleportTask = null;
-        if (pluginInstance != null) {
-            teleportTask = pluginInstance.getServer().getScheduler().runTaskTimer(pluginInstance, () -> {
-                if (entity.isValid() && !entity.isDead()) {
-                    Location currentLoc = entity.getLocation();
-                    Location trap = trapLocation.clone();
-
-                    // Preserve head/body rotation for players
-                    if (entity instanceof Player) {
-                        trap.setYaw(currentLoc.getYaw());
-                        trap.setPitch(currentLoc.getPitch());
-                    }
-
-                    // Teleport if entity moved too far from trap
-                    if (currentLoc.distance(trapLocation) > 0.3) {
-                        entity.teleport(trap);
-                        entity.setVelocity(entity.getVelocity().multiply(0));
-                    }
-                }
-            }, 0L, 1L); // Every tick for maximum effectiveness
-        }
-
-        // Schedule automatic release
-        BukkitTask releaseTask = null;
-        if (pluginInstance != null) {
-            releaseTask = pluginInstance.getServer().getScheduler().runTaskLater(pluginInstance, () -> {
-                releaseEntity(entityId);
-            }, durationSeconds * 20L);
-        }
-
-        trappedEntities.put(entityId, new VineTrappedData(
-                trapLocation, originalWalkSpeed, originalFlySpeed, trapEndTime, teleportTask, releaseTask
-        ));
-
-        // Log for debugging
-        if (pluginInstance != null) {
-            String entityName = entity instanceof Player ? ((Player) entity).getName() :
-                    entity.getCustomName() != null ? entity.getCustomName() : entity.getType().name();
-            pluginInstance.getLogger().info("Trapped entity: " + entityName + " at " +
-                    trapLocation.getBlockX() + "," + trapLocation.getBlockY() + "," + trapLocation.getBlockZ());
-        }
-    }
-
-    public static void releaseEntity(UUID entityId) {
-        VineTrappedData data = trappedEntities.remove(entityId);
-
-        if (data != null) {
-            if (data.teleportTask != null && !data.teleportTask.isCancelled()) {
-                data.teleportTask.cancel();
-            }
-            if (data.releaseTask != null && !data.releaseTask.isCancelled()) {
-                data.releaseTask.cancel();
-            }
-
-            if (pluginInstance != null) {
-                LivingEntity entity = null;
-
-                // Find the entity across all worlds
-                for (org.bukkit.World world : pluginInstance.getServer().getWorlds()) {
-                    for (LivingEntity livingEntity : world.getLivingEntities()) {
-                        if (livingEntity.getUniqueId().equals(entityId)) {
-                            entity = livingEntity;
-                            break;
-                        }
-                    }
-                    if (entity != null) break;
-                }
-
-                if (entity != null && entity.isValid() && !entity.isDead()) {
-                    // Remove potion effects
-                    entity.removePotionEffect(PotionEffectType.SLOWNESS);
-                    entity.removePotionEffect(PotionEffectType.JUMP_BOOST);
-
-                    // Restore player speeds
-                    if (entity instanceof Player) {
-                        Player player = (Player) entity;
-                        player.setWalkSpeed(data.originalWalkSpeed);
-                        player.setFlySpeed(data.originalFlySpeed);
-                        player.sendMessage(Component.text("🌿 You have been freed from the vines!")
-                                .color(NamedTextColor.GREEN));
-                    }
-
-                    // Log release
-                    String entityName = entity instanceof Player ? ((Player) entity).getName() :
-                            entity.getCustomName() != null ? entity.getCustomName() : entity.getType().name();
-                    pluginInstance.getLogger().info("Released entity: " + entityName);
-                }
+        boolean trapped = crowdControl.root(entity, TRAP_SECONDS * 20, released -> {
+            if (released instanceof Player) {
+                ((Player) released).sendMessage(Component.text("🌿 You have been freed from the vines!")
+                        .color(NamedTextColor.GREEN));
             }
-        }
-    }
-
-    // Utility methods remain the same
-    public static Map<UUID, VineTrappedData> getTrappedEntities() {
-        return new HashMap<>(trappedEntities);
-    }
-
-    public static void cleanupExpiredTraps() {
-        long currentTime = System.currentTimeMillis();
-        trappedEntities.entrySet().removeIf(entry -> {
-            boolean expired = currentTime > entry.getValue().trapEndTime;
-            if (expired) {
-                releaseEntity(entry.getKey());
-            }
-            return expired;
+            journal.log(CombatJournal.Category.VINE_TRAP, CombatJournal.Severity.DEBUG,
+                    "Released {}", entityName);
         });
-    }
-
-    public static void releaseAllEntities() {
-        for (UUID entityId : new HashMap<>(trappedEntities).keySet()) {
-            releaseEntity(entityId);
-        }
-        trappedEntities.clear();
-    }
-
-    public static boolean hasTrappedEntities() {
-        return !trappedEntities.isEmpty();
-    }
 
-    public static int getRemainingTrapTime(UUID entityId) {
-        VineTrappedData data = trappedEntities.get(entityId);
-        if (data == null) {
-            return -1;
+        if (trapped && journal.isEnabled(CombatJournal.Category.VINE_TRAP, CombatJournal.Severity.INFO)) {
+            journal.log(CombatJournal.Category.VINE_TRAP, CombatJournal.Severity.INFO,
+                    "Trapped {} at {} for {}s", entityName,
+                    trapLocation.getBlockX() + "," + trapLocation.getBlockY() + "," + trapLocation.getBlockZ(),
+                    TRAP_SECONDS);
         }
-
-        long remainingMs = data.trapEndTime - System.currentTimeMillis();
-        return Math.max(0, (int) (remainingMs / 1000));
     }
-}
\ No newline at end of file
+}
@@ -2,35 +2,63 @@ package rc.maces.abilities.fire;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LargeFireball;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 import rc.maces.abilities.BaseAbility;
+import rc.maces.abilities.TargetSelector;
 import rc.maces.managers.CooldownManager;
-import rc.maces.managers.TrustManager;
+import rc.maces.managers.ParticleBudget;
+import rc.maces.tasks.EffectTimeline;
+import rc.maces.tasks.EffectTimelineEngine;
 
-import java.util.Collection;
 import java.util.Random;
 
 // Meteors Ability - NERFED: Now does exactly 1 heart (2 damage) per meteor hit regardless of armor
 public class MeteorsAbility extends BaseAbility {
 
-    private final JavaPlugin plugin;
-    private final TrustManager trustManager;
+    private final TargetSelector targetSelector;
+    private final EffectTimelineEngine timelines;
+    private final ParticleBudget particles;
     private final Random random = new Random();
 
-    public MeteorsAbility(CooldownManager cooldownManager, JavaPlugin plugin, TrustManager trustManager) {
+    /**
+     * How falling meteors are shown, set in config.yml (meteors.projectile-mode)
+     */
+    public enum ProjectileMode {
+        VIRTUAL, // Fall is simulated here and drawn with particles, no entity is spawned
+        ENTITY;  // A cosmetic LargeFireball is spawned for each meteor
+
+        public static ProjectileMode fromConfig(String value) {
+            if (value != null) {
+                for (ProjectileMode mode : values()) {
+                    if (mode.name().equalsIgnoreCase(value.trim())) {
+                        return mode;
+                    }
+                }
+            }
+            return VIRTUAL;
+        }
+    }
+
+    private static final int METEOR_COUNT = 6;
+    private static final long METEOR_INTERVAL = 3L;
+    private static final long IMPACT_DELAY = 15L; // Adjusted for the higher spawn
+    private static final double FALL_HEIGHT = 25.0; // Higher spawn for more dramatic effect
+
+    private final ProjectileMode projectileMode;
+
+    public MeteorsAbility(CooldownManager cooldownManager, TargetSelector targetSelector,
+                          EffectTimelineEngine timelines, ParticleBudget particles, ProjectileMode projectileMode) {
         super("meteors", 60, cooldownManager);
-        this.plugin = plugin;
-        this.trustManager = trustManager;
+        this.targetSelector = targetSelector;
+        this.timelines = timelines;
+        this.particles = particles;
+        this.projectileMode = projectileMode;
     }
 
     @Override
@@ -44,101 +72,95 @@ public class MeteorsAbility extends BaseAbility {
                 .color(NamedTextColor.RED));
         center.getWorld().playSound(center, Sound.ENTITY_WITHER_SPAWN, 3.0f, 0.4f);
 
-        new BukkitRunnable() {
-            int meteorsLaunched = 0;
+        // 6 meteors, one every 3 ticks (slightly longer delay between meteors), each landing 15 ticks after launch
+        EffectTimeline meteors = new EffectTimeline();
+        for (int i = 0; i < METEOR_COUNT; i++) {
+            // Improved random location in 12x12 radius (6 blocks each direction) for better range
+            int randomX = random.nextInt(13) - 6; // -6 to +6
+            int randomZ = random.nextInt(13) - 6; // -6 to +6
+            Location targetLoc = center.clone().add(randomX, 0, randomZ);
+
+            long launchTick = (long) i * METEOR_INTERVAL;
+            meteors.at(launchTick, playback -> launchMeteor(targetLoc, player))
+                    .at(launchTick + IMPACT_DELAY, playback -> meteorImpact(targetLoc, player));
+
+            if (projectileMode == ProjectileMode.VIRTUAL) {
+                // Draw the fall every tick between launch and impact, the impact itself lands on schedule
+                Location trailLoc = targetLoc.clone();
+                meteors.during(launchTick, launchTick + IMPACT_DELAY, 1,
+                        playback -> drawFallingMeteor(trailLoc, targetLoc.getY(), playback.getElapsed() - launchTick));
+            }
+        }
+        timelines.play(meteors);
 
-            @Override
-            public void run() {
-                if (meteorsLaunched >= 6) {
-                    cancel();
-                    return;
-                }
+        setCooldown(player);
+    }
 
-                // Improved random location in 12x12 radius (6 blocks each direction) for better range
-                int randomX = random.nextInt(13) - 6; // -6 to +6
-                int randomZ = random.nextInt(13) - 6; // -6 to +6
-
-                Location targetLoc = center.clone().add(randomX, 0, randomZ);
-                Location meteorLoc = targetLoc.clone().add(0, 25, 0); // Higher spawn for more dramatic effect
-
-                // Enhanced warning effects
-                targetLoc.getWorld().spawnParticle(Particle.FLAME, targetLoc, 25);
-                targetLoc.getWorld().spawnParticle(Particle.LAVA, targetLoc, 15);
-                targetLoc.getWorld().spawnParticle(Particle.SMOKE, targetLoc, 20);
-                targetLoc.getWorld().spawnParticle(Particle.CRIT, targetLoc, 10); // Add crit particles for warning
-
-                // Launch meteor with consistent speed
-                LargeFireball meteor = meteorLoc.getWorld().spawn(meteorLoc, LargeFireball.class);
-                meteor.setShooter(player);
-                meteor.setDirection(new Vector(0, -1, 0));
-                meteor.setVelocity(new Vector(0, -2.0, 0)); // Slightly slower for more dramatic effect
-                meteor.setYield(0.0f); // No block breaking
-
-                // Schedule impact (adjusted for new height)
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        meteorImpact(targetLoc, player);
-                    }
-                }.runTaskLater(plugin, 15L); // Slightly longer delay for higher spawn
+    private void launchMeteor(Location targetLoc, Player caster) {
+        // Enhanced warning effects
+        particles.spawn(Particle.FLAME, targetLoc, 25);
+        particles.spawn(Particle.LAVA, targetLoc, 15);
+        particles.spawn(Particle.SMOKE, targetLoc, 20);
+        particles.spawn(Particle.CRIT, targetLoc, 10); // Add crit particles for warning
 
-                meteorsLaunched++;
-            }
-        }.runTaskTimer(plugin, 0L, 3L); // Slightly longer delay between meteors
+        if (projectileMode == ProjectileMode.VIRTUAL) {
+            return; // Drawn by drawFallingMeteor
+        }
 
-        setCooldown(player);
+        // Launch a cosmetic meteor with consistent speed, damage is dealt by meteorImpact
+        Location meteorLoc = targetLoc.clone().add(0, FALL_HEIGHT, 0);
+        LargeFireball meteor = meteorLoc.getWorld().spawn(meteorLoc, LargeFireball.class);
+        meteor.setShooter(caster);
+        meteor.setDirection(new Vector(0, -1, 0));
+        meteor.setVelocity(new Vector(0, -2.0, 0)); // Slightly slower for more dramatic effect
+        meteor.setYield(0.0f); // No block breaking
+    }
+
+    /**
+     * Draw a simulated meteor where it is the given number of ticks after launch,
+     * falling at a constant speed from FALL_HEIGHT so it reaches the ground at impact
+     */
+    private void drawFallingMeteor(Location trailLoc, double groundY, long ticksSinceLaunch) {
+        double progress = (double) ticksSinceLaunch / IMPACT_DELAY;
+        trailLoc.setY(groundY + FALL_HEIGHT * (1.0 - progress));
+
+        particles.spawn(Particle.FLAME, trailLoc, 8);
+        particles.spawn(Particle.LARGE_SMOKE, trailLoc, 4);
     }
 
     private void meteorImpact(Location targetLoc, Player caster) {
         targetLoc.getWorld().playSound(targetLoc, Sound.ENTITY_GENERIC_EXPLODE, 2.5f, 0.4f);
         // Enhanced explosion effects
-        targetLoc.getWorld().spawnParticle(Particle.EXPLOSION, targetLoc, 35);
-        targetLoc.getWorld().spawnParticle(Particle.FLAME, targetLoc, 30);
-        targetLoc.getWorld().spawnParticle(Particle.LAVA, targetLoc, 15);
-        targetLoc.getWorld().spawnParticle(Particle.SMOKE, targetLoc, 25);
+        particles.spawn(Particle.EXPLOSION, targetLoc, 35);
+        particles.spawn(Particle.FLAME, targetLoc, 30);
+        particles.spawn(Particle.LAVA, targetLoc, 15);
+        particles.spawn(Particle.SMOKE, targetLoc, 25);
 
-        // Deal flat 1 heart (2 damage) to ALL nearby living entities in 5 block range
-        Collection<Entity> nearby = targetLoc.getWorld().getNearbyEntities(targetLoc, 5, 5, 5);
+        // Deal flat 1 heart (2 damage) to ALL nearby hostile living entities in 5 block range
+        // (allies, creative and spectator players are already filtered out, no spam message to allies)
         int affectedCount = 0; // Track affected entities for summary message
 
-        for (Entity entity : nearby) {
-            if (entity instanceof LivingEntity && entity != caster) {
-                LivingEntity living = (LivingEntity) entity;
-
-                // TRUST SYSTEM CHECK - Skip trusted players (NO SPAM MESSAGE)
-                if (living instanceof Player targetPlayer) {
-                    if (trustManager.isTrusted(caster, targetPlayer)) {
-                        // REMOVED: No spam message to trusted players
-                        continue;
-                    }
-
-                    // Skip creative/spectator players
-                    if (targetPlayer.getGameMode() == GameMode.CREATIVE || targetPlayer.getGameMode() == GameMode.SPECTATOR) {
-                        continue;
-                    }
-                }
-
-                // SIMPLIFIED DAMAGE SYSTEM - Always 1 heart (2 damage) regardless of armor
-                double damage = 2.0; // Exactly 1 heart
+        for (LivingEntity living : targetSelector.findHostiles(caster, targetLoc, 5)) {
+            // SIMPLIFIED DAMAGE SYSTEM - Always 1 heart (2 damage) regardless of armor
+            double damage = 2.0; // Exactly 1 heart
 
-                // Apply damage safely (never kill instantly, always leave at least 1 HP)
-                double currentHealth = living.getHealth();
-                double newHealth = Math.max(1.0, currentHealth - damage); // Always leave 1 HP minimum
-                living.setHealth(newHealth);
+            // Apply damage safely (never kill instantly, always leave at least 1 HP)
+            double currentHealth = living.getHealth();
+            double newHealth = Math.max(1.0, currentHealth - damage); // Always leave 1 HP minimum
+            living.setHealth(newHealth);
 
-                // Apply fire effect
-                entity.setFireTicks(120); // 6 seconds of fire
+            // Apply fire effect
+            living.setFireTicks(120); // 6 seconds of fire
 
-                // Add knockback effect
-                Vector knockback = entity.getLocation().toVector().subtract(targetLoc.toVector());
-                if (knockback.lengthSquared() > 0) {
-                    knockback = knockback.normalize().multiply(1.2);
-                    knockback.setY(Math.max(0.5, knockback.getY())); // Ensure upward knockback
-                    entity.setVelocity(knockback);
-                }
-
-                affectedCount++; // Count this entity as affected
+            // Add knockback effect
+            Vector knockback = living.getLocation().toVector().subtract(targetLoc.toVector());
+            if (knockback.lengthSquared() > 0) {
+                knockback = knockback.normalize().multiply(1.2);
+                knockback.setY(Math.max(0.5, knockback.getY())); // Ensure upward knockback
+                living.setVelocity(knockback);
             }
+
+            affectedCount++; // Count this entity as affected
         }
     }
 }
\ No newline at end of file
@@ -6,30 +6,27 @@ import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Sound;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.util.Vector;
 import rc.maces.abilities.BaseAbility;
+import rc.maces.abilities.TargetSelector;
 import rc.maces.managers.CooldownManager;
-import rc.maces.managers.TrustManager;
-
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import rc.maces.managers.ParticleBudget;
+import rc.maces.managers.TemporaryBlockManager;
 
 // Obsidian Creation Ability - UPDATED: Only replaces tall grass and short grass
 public class ObsidianCreationAbility extends BaseAbility {
 
-    private final JavaPlugin plugin;
-    private final TrustManager trustManager;
+    private final TargetSelector targetSelector;
+    private final TemporaryBlockManager temporaryBlocks;
+    private final ParticleBudget particles;
 
-    public ObsidianCreationAbility(CooldownManager cooldownManager, JavaPlugin plugin, TrustManager trustManager) {
+    public ObsidianCreationAbility(CooldownManager cooldownManager, TargetSelector targetSelector,
+                                   TemporaryBlockManager temporaryBlocks, ParticleBudget particles) {
         super("obsidian_creation", 30, cooldownManager);
-        this.plugin = plugin;
-        this.trustManager = trustManager;
+        this.targetSelector = targetSelector;
+        this.temporaryBlocks = temporaryBlocks;
+        this.particles = particles;
     }
 
     @Override
@@ -37,44 +34,40 @@ public class ObsidianCreationAbility extends BaseAbility {
         if (!canUse(player)) return;
 
         Location center = player.getLocation();
-        Map<Location, Material> originalBlocks = new HashMap<>();
+        // Obsidian reverts after 1 minute (1200 ticks), also after a restart if the server stops first
+        TemporaryBlockManager.Batch obsidian = temporaryBlocks.batch(center.getWorld(), 1200L);
+        // Blocks are changed over the next ticks within the world edit budget, effects follow each block
+        obsidian.onApply(block -> {
+            // Enhanced visual effects at obsidian creation sites
+            Location effectLoc = block.getLocation().add(0.5, 0.5, 0.5);
+            particles.spawn(Particle.SMOKE, effectLoc, 15);
+            particles.spawn(Particle.LAVA, effectLoc, 8);
+            particles.spawn(Particle.FLAME, effectLoc, 12);
+        });
         int blocksConverted = 0;
 
-        // Find all entities in 8 block radius and spawn obsidian on them (except allies)
-        Collection<Entity> nearbyEntities = center.getWorld().getNearbyEntities(center, 4, 4, 4); // 8 block range
-        for (Entity entity : nearbyEntities) {
-            if (entity instanceof LivingEntity && entity != player) {
-                LivingEntity target = (LivingEntity) entity;
-
-                // Check trust system - don't trap trusted players (NO SPAM MESSAGE)
-                if (target instanceof Player && trustManager.isTrusted(player, (Player) target)) {
-                    continue;
-                }
-
-                Location targetLoc = target.getLocation();
-
-                // Spawn obsidian in a larger box (4x5x4) but ONLY replace grass types
-                for (int x = -2; x <= 1; x++) { // 4 blocks wide
-                    for (int z = -2; z <= 1; z++) { // 4 blocks deep
-                        for (int y = 0; y <= 4; y++) { // Height of 5 blocks
-                            Location obsidianLoc = targetLoc.clone().add(x, y, z);
-                            Material blockType = obsidianLoc.getBlock().getType();
-
-                            // UPDATED: Only replace tall grass and short grass (and air for completion)
-                            if (blockType == Material.TALL_GRASS ||
-                                    blockType == Material.SHORT_GRASS ||
-                                    blockType == Material.AIR) {
-
-                                // Don't replace existing obsidian
-                                if (blockType != Material.OBSIDIAN) {
-                                    originalBlocks.put(obsidianLoc.clone(), blockType);
-                                    obsidianLoc.getBlock().setType(Material.OBSIDIAN);
+        // Find all hostile entities in 8 block radius and spawn obsidian on them
+        // Allies, creative and spectator players are already filtered out
+        for (LivingEntity target : targetSelector.findHostiles(player, center, 4)) { // 8 block range
+            Location targetLoc = target.getLocation();
+
+            // Spawn obsidian in a larger box (4x5x4) but ONLY replace grass types
+            for (int x = -2; x <= 1; x++) { // 4 blocks wide
+                for (int z = -2; z <= 1; z++) { // 4 blocks deep
+                    for (int y = 0; y <= 4; y++) { // Height of 5 blocks
+                        Location obsidianLoc = targetLoc.clone().add(x, y, z);
+                        Material blockType = obsidianLoc.getBlock().getType();
+
+                        // UPDATED: Only replace tall grass and short grass (and air for completion)
+                        if (blockType == Material.TALL_GRASS ||
+                                blockType == Material.SHORT_GRASS ||
+                                blockType == Material.AIR) {
+
+                            // Don't replace existing obsidian
+                            if (blockType != Material.OBSIDIAN) {
+                                // No physics updates, blocks shared by two targets' boxes only count once
+                                if (obsidian.place(obsidianLoc.getBlock(), Material.OBSIDIAN)) {
                                     blocksConverted++;
-
-                                    // Enhanced visual effects at obsidian creation sites
-                                    obsidianLoc.getWorld().spawnParticle(Particle.SMOKE, obsidianLoc.add(0.5, 0.5, 0.5), 15);
-                                    obsidianLoc.getWorld().spawnParticle(Particle.LAVA, obsidianLoc, 8);
-                                    obsidianLoc.getWorld().spawnParticle(Particle.FLAME, obsidianLoc, 12);
                                 }
                             }
                         }
@@ -89,88 +82,14 @@ public class ObsidianCreationAbility extends BaseAbility {
             return; // Don't set cooldown if no obsidian was created
         }
 
+        obsidian.commit();
+
         center.getWorld().playSound(center, Sound.BLOCK_LAVA_POP, 2.0f, 0.4f);
         center.getWorld().playSound(center, Sound.BLOCK_STONE_PLACE, 1.5f, 0.6f);
 
-        // Damage entities that were trapped and continue damaging
-        new BukkitRunnable() {
-            int ticks = 0;
-
-            @Override
-            public void run() {
-                if (ticks >= 300) { // 15 seconds of damage dealing
-                    cancel();
-                    return;
-                }
-
-                // Deal damage to entities standing on obsidian blocks (that were converted) every 1.5 seconds
-                if (ticks % 30 == 0) {
-                    // Check in 8 block radius (same as initial range)
-                    Collection<Entity> nearby = center.getWorld().getNearbyEntities(center, 4, 4, 4);
-                    for (Entity entity : nearby) {
-                        if (entity instanceof LivingEntity && entity != player) {
-                            LivingEntity target = (LivingEntity) entity;
-
-                            // Check trust system - don't damage trusted players (NO SPAM MESSAGE)
-                            if (target instanceof Player && trustManager.isTrusted(player, (Player) target)) {
-                                continue;
-                            }
-
-                            Location targetLoc = target.getLocation();
-
-                            // Check if entity is standing on converted obsidian
-                            Location blockBelow = targetLoc.clone().add(0, -1, 0);
-                            Location blockAt = targetLoc.getBlock().getLocation();
-
-                            boolean isOnConvertedObsidian = false;
-
-                            // Check if standing on or in a converted obsidian block
-                            if (originalBlocks.containsKey(blockBelow) && blockBelow.getBlock().getType() == Material.OBSIDIAN) {
-                                isOnConvertedObsidian = true;
-                            }
-                            if (originalBlocks.containsKey(blockAt) && blockAt.getBlock().getType() == Material.OBSIDIAN) {
-                                isOnConvertedObsidian = true;
-                            }
-
-                            if (isOnConvertedObsidian) {
-                                // Deal 2 hearts (4 damage) true damage + ignite
-                                double newHealth = Math.max(0, target.getHealth() - 4.0);
-                                target.setHealth(newHealth);
-                                target.setFireTicks(60); // Ignite for 3 seconds
-
-                                // Add knockback effect
-                                Vector knockback = targetLoc.toVector().subtract(center.toVector()).normalize().multiply(1.5);
-                                knockback.setY(0.8); // Add upward component
-                                target.setVelocity(knockback);
-
-                                // Enhanced visual effects
-                                targetLoc.getWorld().spawnParticle(Particle.LAVA, targetLoc, 20);
-                                targetLoc.getWorld().spawnParticle(Particle.SMOKE, targetLoc, 15);
-                                targetLoc.getWorld().spawnParticle(Particle.FLAME, targetLoc, 25);
-                                targetLoc.getWorld().playSound(targetLoc, Sound.BLOCK_LAVA_POP, 1.5f, 1.2f);
-                                targetLoc.getWorld().playSound(targetLoc, Sound.ENTITY_GENERIC_BURN, 1.0f, 1.0f);
-                            }
-                        }
-                    }
-                }
-
-                ticks++;
-            }
-        }.runTaskTimer(plugin, 0L, 1L);
-
-        // Schedule obsidian removal after 1 minutes (1200 ticks)
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Remove all obsidian blocks that were converted
-                for (Location obsidianLoc : originalBlocks.keySet()) {
-                    if (obsidianLoc.getBlock().getType() == Material.OBSIDIAN) {
-                        Material originalType = originalBlocks.get(obsidianLoc);
-                        obsidianLoc.getBlock().setType(originalType);
-                    }
-                }
-            }
-        }.runTaskLater(plugin, 1200L); // 1 minutes = 1200 ticks
+        // The obsidian only traps. The damage-over-time loop that used to follow never matched a converted
+        // block (it looked blocks up by the fractional target location), so it never dealt damage.
+        // Making it work would be a balance change: 4 true damage every 1.5s for 15s kills through armor.
 
         setCooldown(player);
     }
@@ -12,14 +12,18 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 import rc.maces.abilities.BaseAbility;
 import rc.maces.managers.CooldownManager;
+import rc.maces.managers.ParticleBudget;
 
 import java.util.Collection;
 
 // Water Heal Ability - OPTIONAL: Can remove message entirely if desired
 public class WaterHealAbility extends BaseAbility {
 
-    public WaterHealAbility(CooldownManager cooldownManager) {
+    private final ParticleBudget particles;
+
+    public WaterHealAbility(CooldownManager cooldownManager, ParticleBudget particles) {
         super("water_heal", 10, cooldownManager);
+        this.particles = particles;
     }
 
     @Override
@@ -36,7 +40,7 @@ public class WaterHealAbility extends BaseAbility {
                 .color(NamedTextColor.BLUE));
 
         player.getWorld().playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.5f);
-        player.getWorld().spawnParticle(Particle.HEART, player.getLocation().add(0, 1, 0), 5);
+        particles.spawn(Particle.HEART, player.getLocation().add(0, 1, 0), 5);
 
         setCooldown(player);
     }
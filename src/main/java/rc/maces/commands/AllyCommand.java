@@ -0,0 +1,177 @@
+package rc.maces.commands;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import rc.maces.managers.AllyGroupManager;
+import rc.maces.managers.AllyGroupManager.AllyGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class AllyCommand implements CommandExecutor, TabCompleter {
+
+    private final AllyGroupManager allyGroups;
+
+    public AllyCommand(AllyGroupManager allyGroups) {
+        this.allyGroups = allyGroups;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(Component.text("This command can only be used by players!")
+                    .color(NamedTextColor.RED));
+            return true;
+        }
+
+        Player player = (Player) sender;
+
+        if (args.length == 0) {
+            sendHelp(player);
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "create":
+                if (args.length != 2) {
+                    player.sendMessage(Component.text("Usage: /ally create <name>")
+                            .color(NamedTextColor.RED));
+                    return true;
+                }
+                allyGroups.createGroup(player, args[1]);
+                break;
+
+            case "invite":
+                if (args.length != 2) {
+                    player.sendMessage(Component.text("Usage: /ally invite <player>")
+                            .color(NamedTextColor.RED));
+                    return true;
+                }
+                Player target = Bukkit.getPlayer(args[1]);
+                if (target == null) {
+                    player.sendMessage(Component.text("❌ Player '" + args[1] + "' is not online!")
+                            .color(NamedTextColor.RED));
+                    return true;
+                }
+                allyGroups.invitePlayer(player, target);
+                break;
+
+            case "accept":
+                allyGroups.acceptInvite(player);
+                break;
+
+            case "deny":
+                allyGroups.denyInvite(player);
+                break;
+
+            case "leave":
+                allyGroups.leaveGroup(player);
+                break;
+
+            case "disband":
+                allyGroups.disbandGroup(player);
+                break;
+
+            case "info":
+                showInfo(player);
+                break;
+
+            default:
+                sendHelp(player);
+                break;
+        }
+
+        return true;
+    }
+
+    private void showInfo(Player player) {
+        AllyGroup group = allyGroups.getGroup(player.getUniqueId());
+        if (group == null) {
+            player.sendMessage(Component.text("❌ You are not in an ally group! Create one with /ally create <name>")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        player.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+        player.sendMessage(Component.text("🤝 " + group.getName() + " (" + group.getSize() + " members)")
+                .color(NamedTextColor.GOLD)
+                .decoration(TextDecoration.BOLD, true));
+
+        for (UUID member : group.getMembers()) {
+            Player online = Bukkit.getPlayer(member);
+            String name = online != null ? online.getName() : Bukkit.getOfflinePlayer(member).getName();
+            if (name == null) continue;
+
+            Component line = Component.text("• " + name)
+                    .color(online != null ? NamedTextColor.GREEN : NamedTextColor.GRAY);
+            if (member.equals(group.getLeader())) {
+                line = line.append(Component.text(" 👑 leader").color(NamedTextColor.GOLD));
+            }
+            if (online == null) {
+                line = line.append(Component.text(" (offline)").color(NamedTextColor.DARK_GRAY));
+            }
+            player.sendMessage(line);
+        }
+
+        player.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+    }
+
+    private void sendHelp(Player player) {
+        player.sendMessage(Component.text("=== Ally Group Commands ===")
+                .color(NamedTextColor.GOLD));
+        player.sendMessage(Component.text("/ally create <name> - Create a new ally group")
+                .color(NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/ally invite <player> - Invite a player (leader only)")
+                .color(NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/ally accept | deny - Answer a pending invite")
+                .color(NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/ally leave - Leave your ally group")
+                .color(NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/ally disband - Disband your ally group (leader only)")
+                .color(NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("/ally info - Show your ally group's members")
+                .color(NamedTextColor.YELLOW));
+        player.sendMessage(Component.text("Group members are protected from each other like trusted allies.")
+                .color(NamedTextColor.GRAY));
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+
+        if (args.length == 1) {
+            for (String subCmd : Arrays.asList("create", "invite", "accept", "deny", "leave", "disband", "info")) {
+                if (subCmd.startsWith(args[0].toLowerCase())) {
+                    completions.add(subCmd);
+                }
+            }
+        }
+        else if (args.length == 2) {
+            String subCommand = args[0].toLowerCase();
+
+            if (subCommand.equals("invite")) {
+                for (Player online : Bukkit.getOnlinePlayers()) {
+                    if (online.getName().toLowerCase().startsWith(args[1].toLowerCase())) {
+                        completions.add(online.getName());
+                    }
+                }
+            }
+            else if (subCommand.equals("create")) {
+                completions.add("<name>");
+            }
+        }
+
+        return completions;
+    }
+}
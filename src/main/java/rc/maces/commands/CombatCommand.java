@@ -9,8 +9,10 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import rc.maces.listeners.CombatCommandBlocker;
+import rc.maces.managers.CombatJournal;
 import rc.maces.managers.CombatTimer;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -78,6 +80,9 @@ public class CombatCommand implements CommandExecutor {
                 case "commands":
                     showCommandInfo(player);
                     return true;
+                case "log":
+                    showJournalTail(player, args);
+                    return true;
                 case "help":
                     showAdminHelp(player);
                     return true;
@@ -243,7 +248,7 @@ public class CombatCommand implements CommandExecutor {
         admin.sendMessage(Component.text(""));
 
         // Show configured safe zones
-        Map<String, CombatTimer.SafeZone> safeZones = combatTimer.getSafeZones();
+        List<CombatTimer.SafeZone> safeZones = combatTimer.getSafeZones();
         admin.sendMessage(Component.text("Configured Safe Zones (" + safeZones.size() + "):")
                 .color(NamedTextColor.YELLOW));
 
@@ -251,10 +256,8 @@ public class CombatCommand implements CommandExecutor {
             admin.sendMessage(Component.text("• No safe zones configured")
                     .color(NamedTextColor.GRAY));
         } else {
-            for (Map.Entry<String, CombatTimer.SafeZone> entry : safeZones.entrySet()) {
-                String worldName = entry.getKey();
-                CombatTimer.SafeZone zone = entry.getValue();
-                admin.sendMessage(Component.text("• " + zone.getName() + " in " + worldName)
+            for (CombatTimer.SafeZone zone : safeZones) {
+                admin.sendMessage(Component.text("• " + zone.getName() + " in " + zone.getWorldName())
                         .color(NamedTextColor.WHITE));
                 admin.sendMessage(Component.text("  Size: " + zone.getSizeX() + " × " + zone.getSizeY() + " × " + zone.getSizeZ())
                         .color(NamedTextColor.DARK_GRAY));
@@ -336,6 +339,67 @@ public class CombatCommand implements CommandExecutor {
                 .color(NamedTextColor.GOLD));
     }
 
+    private void showJournalTail(Player admin, String[] args) {
+        CombatJournal journal = combatTimer.getCombatJournal();
+        if (journal == null || !journal.isEnabled()) {
+            admin.sendMessage(Component.text("❌ The combat journal is disabled in config.yml!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        // /combat log [count] [category] - either argument may be left out
+        int count = 10;
+        CombatJournal.Category category = null;
+        for (int i = 1; i < args.length; i++) {
+            try {
+                count = Math.max(1, Math.min(100, Integer.parseInt(args[i])));
+                continue;
+            } catch (NumberFormatException ignored) {
+            }
+
+            category = CombatJournal.Category.fromKey(args[i]);
+            if (category == null) {
+                StringBuilder categories = new StringBuilder();
+                for (CombatJournal.Category value : CombatJournal.Category.values()) {
+                    if (categories.length() > 0) categories.append(", ");
+                    categories.append(value.getKey());
+                }
+                admin.sendMessage(Component.text("Unknown category! Use one of: " + categories)
+                        .color(NamedTextColor.RED));
+                return;
+            }
+        }
+
+        List<String> lines = journal.getTail(count, category);
+
+        admin.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+        admin.sendMessage(Component.text("     COMBAT LOG" + (category != null ? " (" + category.getKey() + ")" : ""))
+                .color(NamedTextColor.GOLD)
+                .decoration(TextDecoration.BOLD, true));
+        admin.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+
+        if (lines.isEmpty()) {
+            admin.sendMessage(Component.text("No combat events recorded yet.")
+                    .color(NamedTextColor.GRAY));
+        } else {
+            for (String line : lines) {
+                admin.sendMessage(Component.text(line)
+                        .color(NamedTextColor.GRAY));
+            }
+        }
+
+        long dropped = journal.getDroppedCount();
+        if (dropped > 0) {
+            admin.sendMessage(Component.text("⚠ " + dropped + " events were dropped because the writer fell behind")
+                    .color(NamedTextColor.YELLOW));
+        }
+
+        admin.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+    }
+
     private void showAdminHelp(Player admin) {
         admin.sendMessage(Component.text("═══════════════════════════════════")
                 .color(NamedTextColor.GOLD));
@@ -380,6 +444,11 @@ public class CombatCommand implements CommandExecutor {
                 .append(Component.text(" - List blocked/allowed commands")
                         .color(NamedTextColor.GRAY)));
 
+        admin.sendMessage(Component.text("/combat log [count] [category]")
+                .color(NamedTextColor.YELLOW)
+                .append(Component.text(" - Show recent combat events")
+                        .color(NamedTextColor.GRAY)));
+
         admin.sendMessage(Component.text("/combat help")
                 .color(NamedTextColor.YELLOW)
                 .append(Component.text(" - Show this help menu")
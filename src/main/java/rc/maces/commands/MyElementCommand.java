@@ -40,15 +40,10 @@ public class MyElementCommand implements CommandExecutor {
         // Check if player has a mace crafted
         boolean hasMaceCrafted = false;
         for (ItemStack item : player.getInventory().getContents()) {
-            if (maceManager.isCustomMace(item)) {
-                // Check if the mace matches their element
-                if ((playerElement.equals("AIR") && maceManager.isAirMace(item)) ||
-                        (playerElement.equals("FIRE") && maceManager.isFireMace(item)) ||
-                        (playerElement.equals("WATER") && maceManager.isWaterMace(item)) ||
-                        (playerElement.equals("EARTH") && maceManager.isEarthMace(item))) {
-                    hasMaceCrafted = true;
-                    break;
-                }
+            // Check if the mace matches their element
+            if (playerElement.equals(maceManager.classify(item).getElement())) {
+                hasMaceCrafted = true;
+                break;
             }
         }
 
@@ -249,11 +249,11 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
 
         String worldName = pos1.getWorld().getName();
 
-        // Check if safe zone already exists for this world
-        if (combatTimer.getSafeZoneForWorld(worldName) != null) {
-            player.sendMessage(Component.text("❌ A safe zone already exists in this world!")
+        // Zone names are used by remove/tp, so they must be unique
+        if (combatTimer.getSafeZoneByName(name) != null) {
+            player.sendMessage(Component.text("❌ A safe zone named '" + name + "' already exists!")
                     .color(NamedTextColor.RED));
-            player.sendMessage(Component.text("Use '/safezone remove' first, then create a new one.")
+            player.sendMessage(Component.text("Pick another name or use '/safezone remove " + name + "' first.")
                     .color(NamedTextColor.YELLOW));
             return true;
         }
@@ -314,7 +314,7 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
 
     /**
      * Remove a safe zone
-     * /safezone remove [world]
+     * /safezone remove [name] - defaults to the zone you are standing in
      */
     private boolean handleRemove(Player player, String[] args) {
         if (!player.hasPermission("maces.admin")) {
@@ -323,25 +323,22 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        String worldName;
-        if (args.length >= 2) {
-            worldName = args[1];
-        } else {
-            worldName = player.getWorld().getName();
-        }
+        var existingSafeZone = args.length >= 2
+                ? combatTimer.getSafeZoneByName(args[1])
+                : combatTimer.getSafeZone(player.getLocation());
 
         // Check if safe zone exists
-        var existingSafeZone = combatTimer.getSafeZoneForWorld(worldName);
         if (existingSafeZone == null) {
-            player.sendMessage(Component.text("❌ No safe zone found in world: " + worldName)
+            player.sendMessage(Component.text(args.length >= 2
+                            ? "❌ No safe zone named: " + args[1]
+                            : "❌ You are not standing in a safe zone! Use '/safezone remove <name>'")
                     .color(NamedTextColor.RED));
             return true;
         }
 
-        String zoneName = existingSafeZone.getName();
-        combatTimer.removeSafeZone(worldName);
+        combatTimer.removeSafeZone(existingSafeZone.getName());
 
-        player.sendMessage(Component.text("✅ Safe zone '" + zoneName + "' removed from world: " + worldName)
+        player.sendMessage(Component.text("✅ Safe zone '" + existingSafeZone.getName() + "' removed from world: " + existingSafeZone.getWorldName())
                 .color(NamedTextColor.GREEN));
 
         return true;
@@ -363,9 +360,8 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
                 .color(NamedTextColor.GOLD));
 
         int count = 1;
-        for (var entry : safeZones.entrySet()) {
-            String worldName = entry.getKey();
-            var zone = entry.getValue();
+        for (var zone : safeZones) {
+            String worldName = zone.getWorldName();
 
             player.sendMessage(Component.text(count + ". " + zone.getName())
                     .color(NamedTextColor.YELLOW)
@@ -482,21 +478,19 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        String worldName;
-        if (args.length >= 2) {
-            worldName = args[1];
-        } else {
-            worldName = player.getWorld().getName();
-        }
-
-        var zone = combatTimer.getSafeZoneForWorld(worldName);
+        var zone = args.length >= 2
+                ? combatTimer.getSafeZoneByName(args[1])
+                : combatTimer.getSafeZonesInWorld(player.getWorld().getName()).stream().findFirst().orElse(null);
         if (zone == null) {
-            player.sendMessage(Component.text("❌ No safe zone found in world: " + worldName)
+            player.sendMessage(Component.text(args.length >= 2
+                            ? "❌ No safe zone named: " + args[1]
+                            : "❌ No safe zone found in world: " + player.getWorld().getName())
                     .color(NamedTextColor.RED));
             return true;
         }
 
         // Get the world and create location at center of safe zone
+        String worldName = zone.getWorldName();
         org.bukkit.World world = Bukkit.getWorld(worldName);
         if (world == null) {
             player.sendMessage(Component.text("❌ World not found: " + worldName)
@@ -598,15 +592,15 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
                     .color(NamedTextColor.WHITE));
             player.sendMessage(Component.text("  Create safe zone from pos1 to pos2")
                     .color(NamedTextColor.GRAY));
-            player.sendMessage(Component.text("• /safezone remove [world]")
+            player.sendMessage(Component.text("• /safezone remove [name]")
                     .color(NamedTextColor.WHITE));
-            player.sendMessage(Component.text("  Remove safe zone from world")
+            player.sendMessage(Component.text("  Remove a safe zone (default: the one you're in)")
                     .color(NamedTextColor.GRAY));
             player.sendMessage(Component.text("• /safezone clear")
                     .color(NamedTextColor.WHITE));
             player.sendMessage(Component.text("  Clear your position selections")
                     .color(NamedTextColor.GRAY));
-            player.sendMessage(Component.text("• /safezone tp [world]")
+            player.sendMessage(Component.text("• /safezone tp [name]")
                     .color(NamedTextColor.WHITE));
             player.sendMessage(Component.text("  Teleport to safe zone center")
                     .color(NamedTextColor.GRAY));
@@ -667,11 +661,10 @@ public class SafeZoneCommand implements CommandExecutor, TabCompleter {
             String subCommand = args[0].toLowerCase();
 
             if (subCommand.equals("remove") || subCommand.equals("tp")) {
-                // Add world name completions
-                var safeZones = combatTimer.getSafeZones();
-                for (String worldName : safeZones.keySet()) {
-                    if (worldName.toLowerCase().startsWith(args[1].toLowerCase())) {
-                        completions.add(worldName);
+                // Add zone name completions
+                for (var zone : combatTimer.getSafeZones()) {
+                    if (zone.getName().toLowerCase().startsWith(args[1].toLowerCase())) {
+                        completions.add(zone.getName());
                     }
                 }
             }
@@ -0,0 +1,180 @@
+package rc.maces.damage;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.projectiles.ProjectileSource;
+import rc.maces.managers.CombatTimer;
+import rc.maces.managers.CombatTimer.SafeZone;
+import rc.maces.managers.HeldMaceTracker;
+import rc.maces.managers.MaceType;
+import rc.maces.managers.TrustManager;
+
+/**
+ * Everything the damage handlers need to know about one hit, resolved once by DamageDispatcher:
+ * who the attacker really is (projectile shooters unwrapped), the mace they swung,
+ * whether attacker and victim are allies and which safe zones they stand in.
+ * Instances are reused between events, so handlers must not keep a reference after handle() returns.
+ */
+public class DamageContext {
+
+    private EntityDamageByEntityEvent event;
+    private Entity victim;
+    private Player victimPlayer;
+    private LivingEntity victimLiving;
+    private Entity damager;
+    private Projectile projectile;
+    private LivingEntity attacker;
+    private Player attackerPlayer;
+    private MaceType weapon = MaceType.NONE;
+    private boolean trusted;
+    private SafeZone attackerSafeZone;
+    private SafeZone victimSafeZone;
+
+    void resolve(EntityDamageByEntityEvent event, TrustManager trustManager, CombatTimer combatTimer,
+                 HeldMaceTracker heldMaceTracker) {
+        this.event = event;
+        this.victim = event.getEntity();
+        this.victimPlayer = victim instanceof Player ? (Player) victim : null;
+        this.victimLiving = victim instanceof LivingEntity ? (LivingEntity) victim : null;
+        this.damager = event.getDamager();
+
+        // Unwrap projectiles to whoever shot them
+        if (damager instanceof Projectile) {
+            projectile = (Projectile) damager;
+            ProjectileSource shooter = projectile.getShooter();
+            attacker = shooter instanceof LivingEntity ? (LivingEntity) shooter : null;
+        } else {
+            attacker = damager instanceof LivingEntity ? (LivingEntity) damager : null;
+        }
+        attackerPlayer = attacker instanceof Player ? (Player) attacker : null;
+
+        // The held mace only matters for melee hits
+        if (projectile == null && attackerPlayer != null && heldMaceTracker != null) {
+            weapon = heldMaceTracker.getMainHand(attackerPlayer);
+        }
+
+        if (isPlayerVsPlayer()) {
+            trusted = trustManager != null && trustManager.isTrusted(attackerPlayer, victimPlayer);
+            if (combatTimer != null) {
+                attackerSafeZone = combatTimer.getCurrentSafeZone(attackerPlayer);
+                victimSafeZone = combatTimer.getCurrentSafeZone(victimPlayer);
+            }
+        }
+    }
+
+    void clear() {
+        event = null;
+        victim = null;
+        victimPlayer = null;
+        victimLiving = null;
+        damager = null;
+        projectile = null;
+        attacker = null;
+        attackerPlayer = null;
+        weapon = MaceType.NONE;
+        trusted = false;
+        attackerSafeZone = null;
+        victimSafeZone = null;
+    }
+
+    public EntityDamageByEntityEvent getEvent() {
+        return event;
+    }
+
+    public void cancel() {
+        event.setCancelled(true);
+    }
+
+    public Entity getVictim() {
+        return victim;
+    }
+
+    /**
+     * The victim if it is a player, otherwise null
+     */
+    public Player getVictimPlayer() {
+        return victimPlayer;
+    }
+
+    /**
+     * The victim if it is a living entity, otherwise null
+     */
+    public LivingEntity getVictimLiving() {
+        return victimLiving;
+    }
+
+    /**
+     * The entity that dealt the damage directly (the projectile itself for ranged hits)
+     */
+    public Entity getDamager() {
+        return damager;
+    }
+
+    public Projectile getProjectile() {
+        return projectile;
+    }
+
+    public boolean isProjectile() {
+        return projectile != null;
+    }
+
+    /**
+     * True for a direct (non projectile) hit by a living entity
+     */
+    public boolean isMelee() {
+        return projectile == null && attacker != null;
+    }
+
+    /**
+     * The living entity responsible for the hit (the shooter for projectiles), or null
+     */
+    public LivingEntity getAttacker() {
+        return attacker;
+    }
+
+    /**
+     * The player responsible for the hit (the shooter for projectiles), or null
+     */
+    public Player getAttackerPlayer() {
+        return attackerPlayer;
+    }
+
+    /**
+     * The mace in the attacker's main hand for melee hits by a player, NONE otherwise
+     */
+    public MaceType getWeapon() {
+        return weapon;
+    }
+
+    /**
+     * A player hurting a different player, directly or with a projectile
+     */
+    public boolean isPlayerVsPlayer() {
+        return attackerPlayer != null && victimPlayer != null && !attackerPlayer.equals(victimPlayer);
+    }
+
+    /**
+     * Attacker and victim are trusted allies (only resolved for player vs player)
+     */
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    public SafeZone getAttackerSafeZone() {
+        return attackerSafeZone;
+    }
+
+    public SafeZone getVictimSafeZone() {
+        return victimSafeZone;
+    }
+
+    /**
+     * Either player stands in a safe zone (only resolved for player vs player)
+     */
+    public boolean isInSafeZone() {
+        return attackerSafeZone != null || victimSafeZone != null;
+    }
+}
@@ -0,0 +1,81 @@
+package rc.maces.damage;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import rc.maces.managers.CombatTimer;
+import rc.maces.managers.HeldMaceTracker;
+import rc.maces.managers.TrustManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The plugin's only EntityDamageByEntityEvent listener. Resolves each hit into a DamageContext once
+ * and passes it through the registered handlers in order, instead of every system unwrapping
+ * shooters, checking trust and safe zones on its own.
+ */
+public class DamageDispatcher implements Listener {
+
+    // Handler order, lower runs first
+    public static final int ORDER_PROTECTION = 100; // Safe zones, ally protection, combat tagging
+    public static final int ORDER_EFFECTS = 200;    // Mace on-hit effects
+    public static final int ORDER_SUMMONS = 300;    // Buddy Up golem targeting
+    public static final int ORDER_DEBUG = 1000;
+
+    private final TrustManager trustManager;
+    private final CombatTimer combatTimer;
+    private final HeldMaceTracker heldMaceTracker;
+    private final List<RegisteredHandler> handlers = new ArrayList<>();
+    private final DamageContext sharedContext = new DamageContext();
+    private boolean dispatching = false;
+
+    private static class RegisteredHandler {
+        final int order;
+        final DamageHandler handler;
+
+        RegisteredHandler(int order, DamageHandler handler) {
+            this.order = order;
+            this.handler = handler;
+        }
+    }
+
+    public DamageDispatcher(TrustManager trustManager, CombatTimer combatTimer, HeldMaceTracker heldMaceTracker) {
+        this.trustManager = trustManager;
+        this.combatTimer = combatTimer;
+        this.heldMaceTracker = heldMaceTracker;
+    }
+
+    /**
+     * Add a handler. Handlers with the same order run in registration order.
+     */
+    public void register(int order, DamageHandler handler) {
+        int index = 0;
+        while (index < handlers.size() && handlers.get(index).order <= order) {
+            index++;
+        }
+        handlers.add(index, new RegisteredHandler(order, handler));
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+        // A handler can cause more damage (golems, abilities), so nested events get their own context
+        boolean nested = dispatching;
+        DamageContext context = nested ? new DamageContext() : sharedContext;
+        dispatching = true;
+
+        try {
+            context.resolve(event, trustManager, combatTimer, heldMaceTracker);
+            for (RegisteredHandler registered : handlers) {
+                registered.handler.handle(context);
+                if (event.isCancelled()) {
+                    break;
+                }
+            }
+        } finally {
+            context.clear();
+            dispatching = nested;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package rc.maces.damage;
+
+/**
+ * One step of the damage pipeline, registered with DamageDispatcher.
+ * Handlers run in order and the pipeline stops as soon as one of them cancels the event.
+ */
+@FunctionalInterface
+public interface DamageHandler {
+
+    void handle(DamageContext context);
+}
@@ -0,0 +1,40 @@
+package rc.maces.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread when one of a player's ability cooldowns runs out.
+ * Only fired for online players; cleared or overwritten cooldowns do not fire.
+ */
+public class AbilityReadyEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String abilityKey;
+    private final int abilityId;
+
+    public AbilityReadyEvent(Player player, String abilityKey, int abilityId) {
+        super(player);
+        this.abilityKey = abilityKey;
+        this.abilityId = abilityId;
+    }
+
+    public String getAbilityKey() {
+        return abilityKey;
+    }
+
+    public int getAbilityId() {
+        return abilityId;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
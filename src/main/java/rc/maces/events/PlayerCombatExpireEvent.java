@@ -0,0 +1,40 @@
+package rc.maces.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread once when a player leaves combat, after CombatTimer has cleared their tag.
+ */
+public class PlayerCombatExpireEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public enum Reason {
+        EXPIRED,  // Timer ran out
+        DEATH,    // The player or their opponent died
+        QUIT,     // The player logged off
+        REMOVED   // Removed by an admin or another plugin
+    }
+
+    private final Reason reason;
+
+    public PlayerCombatExpireEvent(Player player, Reason reason) {
+        super(player);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,55 @@
+package rc.maces.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired on the main thread every time CombatTimer tags a player, both when they enter
+ * combat and when an existing tag is refreshed. Combat state is already updated when this fires.
+ */
+public class PlayerCombatTagEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player cause;
+    private final boolean newTag;
+    private final boolean causedByAlly;
+
+    public PlayerCombatTagEvent(Player player, Player cause, boolean newTag, boolean causedByAlly) {
+        super(player);
+        this.cause = cause;
+        this.newTag = newTag;
+        this.causedByAlly = causedByAlly;
+    }
+
+    /**
+     * The player who caused the tag, or null (admin commands, abilities without a source)
+     */
+    public Player getCause() {
+        return cause;
+    }
+
+    /**
+     * True if the player was not in combat before this tag
+     */
+    public boolean isNewTag() {
+        return newTag;
+    }
+
+    /**
+     * True if the player's combat was caused by a trusted ally
+     */
+    public boolean isCausedByAlly() {
+        return causedByAlly;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -3,18 +3,16 @@ package rc.maces.listeners;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
-import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.plugin.java.JavaPlugin;
+import rc.maces.damage.DamageContext;
+import rc.maces.damage.DamageHandler;
 import rc.maces.managers.CombatTimer;
 
 /**
- * Optional debug listener to test and verify combat timer functionality
+ * Optional debug handler to test and verify combat timer functionality
  * This can be removed in production or disabled via config
  */
-public class CombatTestListener implements Listener {
+public class CombatTestListener implements DamageHandler {
 
     private final JavaPlugin plugin;
     private final CombatTimer combatTimer;
@@ -26,16 +24,17 @@ public class CombatTestListener implements Listener {
         this.debugMode = debugMode;
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerHitPlayer(EntityDamageByEntityEvent event) {
+    // Registered last in the damage pipeline, so it only sees hits nothing cancelled
+    @Override
+    public void handle(DamageContext context) {
         if (!debugMode) return;
 
-        if (!(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
+        if (!context.isPlayerVsPlayer() || !context.isMelee()) {
             return;
         }
 
-        Player victim = (Player) event.getEntity();
-        Player attacker = (Player) event.getDamager();
+        Player victim = context.getVictimPlayer();
+        Player attacker = context.getAttackerPlayer();
 
         // Debug logging
         plugin.getLogger().info("PvP Debug: " + attacker.getName() + " hit " + victim.getName());
@@ -61,10 +60,10 @@ public class CombatTestListener implements Listener {
 
 // Add this to your Main.java in onEnable() if you want debug mode:
 /*
-// Initialize debug listener (optional)
+// Initialize debug handler (optional)
 if (getConfig().getBoolean("debug.combat-timer", false)) {
     CombatTestListener debugListener = new CombatTestListener(this, combatTimer, true);
-    getServer().getPluginManager().registerEvents(debugListener, this);
+    damageDispatcher.register(DamageDispatcher.ORDER_DEBUG, debugListener);
     getLogger().info("Combat timer debug listener enabled!");
 }
 */
\ No newline at end of file
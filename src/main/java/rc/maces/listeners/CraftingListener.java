@@ -15,10 +15,10 @@ import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.Recipe;
 import org.bukkit.inventory.ShapedRecipe;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import rc.maces.managers.ElementManager;
+import rc.maces.managers.MaceManager;
 import rc.maces.recipes.CustomRecipe;
 import rc.maces.recipes.RecipeManager;
 
@@ -33,6 +33,7 @@ public class CraftingListener implements Listener {
     private final JavaPlugin plugin;
     private final RecipeManager recipeManager;
     private final ElementManager elementManager;
+    private final MaceManager maceManager;
 
     // Track how many of each mace type each player has crafted (for display purposes)
     private final Map<UUID, Map<String, Integer>> playerMaceCounts = new HashMap<>();
@@ -46,10 +47,12 @@ public class CraftingListener implements Listener {
 
     private static final int MAX_MACES_PER_TYPE_GLOBAL = 1; // Server-wide limit
 
-    public CraftingListener(JavaPlugin plugin, RecipeManager recipeManager, ElementManager elementManager) {
+    public CraftingListener(JavaPlugin plugin, RecipeManager recipeManager, ElementManager elementManager,
+                            MaceManager maceManager) {
         this.plugin = plugin;
         this.recipeManager = recipeManager;
         this.elementManager = elementManager;
+        this.maceManager = maceManager;
 
         // Initialize global crafting status
         globalMaceCrafted.put("AIR", false);
@@ -268,57 +271,10 @@ public class CraftingListener implements Listener {
     }
 
     /**
-     * Identify what type of mace an ItemStack is
-     * This method needs to be customized based on how your maces are identified
+     * Identify what type of mace an ItemStack is ("AIR", "FIRE", ...), or null if it is not one
      */
     private String identifyMaceType(ItemStack item) {
-        if (item == null || !item.hasItemMeta()) {
-            return null;
-        }
-
-        try {
-            ItemMeta meta = item.getItemMeta();
-            if (meta == null) {
-                return null;
-            }
-
-            // Check display name first
-            if (meta.hasDisplayName()) {
-                String displayName = meta.getDisplayName();
-                if (displayName != null) {
-                    String displayNameLower = displayName.toLowerCase();
-                    if (displayNameLower.contains("air mace")) return "AIR";
-                    if (displayNameLower.contains("fire mace")) return "FIRE";
-                    if (displayNameLower.contains("water mace")) return "WATER";
-                    if (displayNameLower.contains("earth mace")) return "EARTH";
-                }
-            }
-
-            // Check lore if display name doesn't match
-            if (meta.hasLore() && meta.getLore() != null) {
-                for (String lore : meta.getLore()) {
-                    if (lore != null) {
-                        String loreLower = lore.toLowerCase();
-                        if (loreLower.contains("air mace")) return "AIR";
-                        if (loreLower.contains("fire mace")) return "FIRE";
-                        if (loreLower.contains("water mace")) return "WATER";
-                        if (loreLower.contains("earth mace")) return "EARTH";
-
-                        // Alternative: check for elemental keywords
-                        if (loreLower.contains("elemental") && loreLower.contains("air")) return "AIR";
-                        if (loreLower.contains("elemental") && loreLower.contains("fire")) return "FIRE";
-                        if (loreLower.contains("elemental") && loreLower.contains("water")) return "WATER";
-                        if (loreLower.contains("elemental") && loreLower.contains("earth")) return "EARTH";
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            // Silently handle any exceptions to prevent console spam
-            return null;
-        }
-
-        return null;
+        return maceManager.classify(item).getElement();
     }
 
     /**
@@ -17,6 +17,8 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
+import rc.maces.events.PlayerCombatTagEvent;
+import rc.maces.managers.CombatJournal;
 import rc.maces.managers.CombatTimer;
 import rc.maces.managers.TrustManager;
 
@@ -29,11 +31,13 @@ public class ElytraDisabling implements Listener {
     private final CombatTimer combatTimer;
     private final TrustManager trustManager;
     private final JavaPlugin plugin;
+    private final CombatJournal journal;
 
     public ElytraDisabling(CombatTimer combatTimer, TrustManager trustManager, JavaPlugin plugin) {
         this.combatTimer = combatTimer;
         this.trustManager = trustManager;
         this.plugin = plugin;
+        this.journal = combatTimer.getCombatJournal();
     }
 
     /**
@@ -76,7 +80,8 @@ public class ElytraDisabling implements Listener {
 
         sendCombatMessage(player, "You cannot use elytra while in combat!");
 
-        plugin.getLogger().info("Blocked elytra gliding for " + player.getName() + " (in combat)");
+        journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.INFO,
+                "Blocked elytra gliding for {}", player.getName());
     }
 
     /**
@@ -103,7 +108,8 @@ public class ElytraDisabling implements Listener {
         if (isElytraEquipAttempt(event, player)) {
             event.setCancelled(true);
             sendCombatMessage(player, "You cannot equip elytra while in combat!");
-            plugin.getLogger().info("Blocked elytra equipping for " + player.getName() + " (in combat)");
+            journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.INFO,
+                    "Blocked elytra equipping for {}", player.getName());
         }
     }
 
@@ -134,7 +140,8 @@ public class ElytraDisabling implements Listener {
             if (event.getRawSlots().contains(38)) {
                 event.setCancelled(true);
                 sendCombatMessage(player, "You cannot equip elytra while in combat!");
-                plugin.getLogger().info("Blocked elytra drag equipping for " + player.getName() + " (in combat)");
+                journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.INFO,
+                        "Blocked elytra drag equipping for {}", player.getName());
             }
         }
     }
@@ -164,7 +171,8 @@ public class ElytraDisabling implements Listener {
             if (chestplate == null || chestplate.getType() == Material.AIR) {
                 event.setCancelled(true);
                 sendCombatMessage(player, "You cannot equip elytra while in combat!");
-                plugin.getLogger().info("Blocked elytra right-click equipping for " + player.getName() + " (in combat)");
+                journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.INFO,
+                        "Blocked elytra right-click equipping for {}", player.getName());
             }
         }
     }
@@ -202,15 +210,15 @@ public class ElytraDisabling implements Listener {
         ItemStack clickedItem = event.getCurrentItem();
         ItemStack cursorItem = event.getCursor();
 
-        plugin.getLogger().info("Checking elytra equip attempt: slot=" + event.getSlot() + ", slotType=" + event.getSlotType() +
-                ", clickedItem=" + (clickedItem != null ? clickedItem.getType() : "null") +
-                ", cursorItem=" + (cursorItem != null ? cursorItem.getType() : "null"));
+        journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.DEBUG,
+                "Checking elytra equip attempt: slot={}, clicked={}, cursor={}", event.getSlot(),
+                clickedItem != null ? clickedItem.getType() : null, cursorItem != null ? cursorItem.getType() : null);
 
         // Check if clicking on chestplate slot (slot 38)
         if (event.getSlot() == 38) {
             // Placing item from cursor into chestplate slot
             if (cursorItem != null && cursorItem.getType() == Material.ELYTRA) {
-                plugin.getLogger().info("Detected elytra placement in chestplate slot");
+                journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.DEBUG, "Detected elytra placement in chestplate slot");
                 return true;
             }
         }
@@ -220,7 +228,7 @@ public class ElytraDisabling implements Listener {
             PlayerInventory inventory = player.getInventory();
             ItemStack currentChestplate = inventory.getChestplate();
             if (currentChestplate == null || currentChestplate.getType() == Material.AIR) {
-                plugin.getLogger().info("Detected shift-click elytra auto-equip");
+                journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.DEBUG, "Detected shift-click elytra auto-equip");
                 return true;
             }
         }
@@ -231,7 +239,7 @@ public class ElytraDisabling implements Listener {
             if (hotbarSlot >= 0 && hotbarSlot < 9) {
                 ItemStack hotbarItem = player.getInventory().getItem(hotbarSlot);
                 if (hotbarItem != null && hotbarItem.getType() == Material.ELYTRA) {
-                    plugin.getLogger().info("Detected number key elytra swap");
+                    journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.DEBUG, "Detected number key elytra swap");
                     return true;
                 }
             }
@@ -239,7 +247,7 @@ public class ElytraDisabling implements Listener {
 
         // Check for double-click auto-equip
         if (event.getClick().toString().contains("DOUBLE_CLICK") && cursorItem != null && cursorItem.getType() == Material.ELYTRA) {
-            plugin.getLogger().info("Detected double-click elytra equip");
+            journal.log(CombatJournal.Category.ELYTRA, CombatJournal.Severity.DEBUG, "Detected double-click elytra equip");
             return true;
         }
 
@@ -296,31 +304,30 @@ public class ElytraDisabling implements Listener {
     }
 
     /**
-     * Continuous check to remove elytras from players in combat (safety net)
+     * Remove elytras from players as soon as they are tagged (replaces the old half-second scan).
+     * Runs on every tag, not just the first, since an ally-caused tag can be followed by an enemy one.
      */
-    public void startElytraMonitoring() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                for (Player player : plugin.getServer().getOnlinePlayers()) {
-                    if (combatTimer.isInCombat(player) && !combatTimer.isCombatCausedByAlly(player)) {
-                        // Check if player is wearing elytra
-                        if (isWearingElytra(player)) {
-                            player.sendMessage(Component.text("⚠ Elytra automatically removed due to combat!")
-                                    .color(NamedTextColor.YELLOW));
-                            forceRemoveElytra(player, "entered combat");
-                        }
-
-                        // Check if player is gliding
-                        if (player.isGliding()) {
-                            player.setGliding(false);
-                            player.sendMessage(Component.text("⚠ Elytra flight stopped due to combat!")
-                                    .color(NamedTextColor.YELLOW));
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(plugin, 0L, 10L); // Check every half second
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCombatTag(PlayerCombatTagEvent event) {
+        if (event.isCausedByAlly()) {
+            return; // Allow elytra use in ally-caused combat
+        }
+
+        Player player = event.getPlayer();
+
+        // Check if player is wearing elytra
+        if (isWearingElytra(player)) {
+            player.sendMessage(Component.text("⚠ Elytra automatically removed due to combat!")
+                    .color(NamedTextColor.YELLOW));
+            forceRemoveElytra(player, "entered combat");
+        }
+
+        // Check if player is gliding
+        if (player.isGliding()) {
+            player.setGliding(false);
+            player.sendMessage(Component.text("⚠ Elytra flight stopped due to combat!")
+                    .color(NamedTextColor.YELLOW));
+        }
     }
 
     /**
@@ -3,25 +3,27 @@ package rc.maces.listeners;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Particle;
+import org.bukkit.Sound;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.ProjectileHitEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemConsumeEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.projectiles.ProjectileSource;
 import org.bukkit.util.Vector;
 import rc.maces.abilities.AbilityManager;
 import rc.maces.abilities.earth.BuddyUpAbility;
+import rc.maces.damage.DamageContext;
+import rc.maces.events.AbilityReadyEvent;
 import rc.maces.managers.ElementManager;
 import rc.maces.managers.MaceManager;
+import rc.maces.managers.MaceType;
 import rc.maces.managers.TrustManager;
 
 import java.util.HashMap;
@@ -52,142 +54,88 @@ public class MaceListener implements Listener {
         if (!event.getAction().name().contains("RIGHT_CLICK")) return;
 
         Player player = event.getPlayer();
-        ItemStack item = player.getInventory().getItemInMainHand();
-
-        if (maceManager.isAirMace(item)) {
-            maceManager.getAbilityManager().executeAbility(player, AbilityManager.WIND_SHOT);
-        } else if (maceManager.isFireMace(item)) {
-            maceManager.getAbilityManager().executeAbility(player, AbilityManager.OBSIDIAN_CREATION);
-        } else if (maceManager.isWaterMace(item)) {
-            maceManager.getAbilityManager().executeAbility(player, AbilityManager.WATER_HEAL);
-        } else if (maceManager.isEarthMace(item)) {
-            maceManager.getAbilityManager().executeAbility(player, AbilityManager.BUDDY_UP);
+
+        switch (maceManager.classify(player.getInventory().getItemInMainHand())) {
+            case AIR -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.WIND_SHOT);
+            case FIRE -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.OBSIDIAN_CREATION);
+            case WATER -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.WATER_HEAL);
+            case EARTH -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.BUDDY_UP);
+            default -> { }
         }
     }
 
     @EventHandler
     public void onPlayerSwapHandItems(PlayerSwapHandItemsEvent event) {
         Player player = event.getPlayer();
-        ItemStack item = player.getInventory().getItemInMainHand();
+        MaceType type = maceManager.classify(player.getInventory().getItemInMainHand());
 
-        if (maceManager.isCustomMace(item)) {
+        if (type.isMace()) {
             event.setCancelled(true);
 
-            if (maceManager.isAirMace(item)) {
-                maceManager.getAbilityManager().executeAbility(player, AbilityManager.WIND_STRUCK);
-            } else if (maceManager.isFireMace(item)) {
-                maceManager.getAbilityManager().executeAbility(player, AbilityManager.METEORS);
-            } else if (maceManager.isWaterMace(item)) {
-                maceManager.getAbilityManager().executeAbility(player, AbilityManager.WATER_GEYSER);
-            } else if (maceManager.isEarthMace(item)) {
-                maceManager.getAbilityManager().executeAbility(player, AbilityManager.VINE_TRAP);
+            switch (type) {
+                case AIR -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.WIND_STRUCK);
+                case FIRE -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.METEORS);
+                case WATER -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.WATER_GEYSER);
+                case EARTH -> maceManager.getAbilityManager().executeAbility(player, AbilityManager.VINE_TRAP);
+                default -> { }
             }
         }
     }
 
     @EventHandler
-    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        // NEW: Handle Wind Charge damage protection for allies
-        if (event.getDamager() instanceof WindCharge) {
-            WindCharge windCharge = (WindCharge) event.getDamager();
-            ProjectileSource shooter = windCharge.getShooter();
+    public void onAbilityReady(AbilityReadyEvent event) {
+        Player player = event.getPlayer();
 
-            if (shooter instanceof Player && event.getEntity() instanceof Player) {
-                Player shooterPlayer = (Player) shooter;
-                Player targetPlayer = (Player) event.getEntity();
-
-                // Don't cancel damage if player hits themselves
-                if (!shooterPlayer.equals(targetPlayer)) {
-                    // Check trust system - prevent wind charge damage between allies
-                    if (trustManager.isTrusted(shooterPlayer, targetPlayer)) {
-                        event.setCancelled(true);
-                        // No chat message to avoid spam - allies will still get the visual/knockback effects
-                        return;
-                    }
-                }
-            }
+        // Soft ping when an ability comes off cooldown while holding a mace
+        if (maceManager.getHeldMaceTracker().getMainHand(player).isMace()) {
+            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 0.5f, 2.0f);
         }
+    }
 
-        if (event.getDamager() instanceof Player) {
-            Player attacker = (Player) event.getDamager();
-            ItemStack weapon = attacker.getInventory().getItemInMainHand();
+    /**
+     * Damage pipeline step (see DamageDispatcher): mace on-hit effects.
+     * Safe zone and ally hits have already been cancelled by the combat timer, so they never get here.
+     */
+    public void handleDamage(DamageContext context) {
+        Player attacker = context.getAttackerPlayer();
+        LivingEntity victim = context.getVictimLiving();
+
+        // Only melee hits with a mace in hand apply effects
+        if (!context.isMelee() || attacker == null || victim == null) {
+            return;
+        }
 
-            // Check trust system - prevent PvP damage between trusted players
-            if (event.getEntity() instanceof Player) {
-                Player victim = (Player) event.getEntity();
-                if (trustManager.isTrusted(attacker, victim)) {
-                    event.setCancelled(true);
-                    // FIXED: Only send message if enough time has passed (prevent spam)
-                    if (canSendChatMessage(attacker)) {
-                        attacker.sendMessage(Component.text("🤝 You cannot attack your ally " + victim.getName() + "!")
-                                .color(NamedTextColor.YELLOW));
-                    }
-                    return;
-                }
-            }
+        MaceType weapon = context.getWeapon();
 
-            // Apply mace effects to living entities (but respect trust for players)
-            if (event.getEntity() instanceof LivingEntity) {
-                LivingEntity victim = (LivingEntity) event.getEntity();
+        // Air Mace: Apply slow falling on hit (only when holding mace)
+        if (weapon == MaceType.AIR) {
+            victim.addPotionEffect(new PotionEffect(PotionEffectType.SLOW_FALLING, 40, 0)); // 2 seconds
+        }
 
-                // Check trust for player victims
-                if (victim instanceof Player && trustManager.isTrusted(attacker, (Player) victim)) {
-                    return; // Skip effects for trusted players
-                }
+        // Fire Mace: Ignite on hit (only when holding mace)
+        if (weapon == MaceType.FIRE) {
+            victim.setFireTicks(100); // Ignite victim
+        }
 
-                // Air Mace: Apply slow falling on hit (only when holding mace)
-                if (maceManager.isAirMace(weapon)) {
-                    victim.addPotionEffect(new PotionEffect(PotionEffectType.SLOW_FALLING, 40, 0)); // 2 seconds
-                }
+        // Water Mace: 1% chance to give Mining Fatigue 3 for 2 seconds (only when holding mace)
+        if (weapon == MaceType.WATER) {
+            if (random.nextInt(100) == 0) { // 1% chance (0 out of 100)
+                victim.addPotionEffect(new PotionEffect(PotionEffectType.MINING_FATIGUE, 40, 2)); // 2 seconds, level 3
 
-                // Fire Mace: Ignite on hit (only when holding mace)
-                if (maceManager.isFireMace(weapon)) {
-                    event.getEntity().setFireTicks(100); // Ignite victim
+                // FIXED: Only send message if enough time has passed (prevent spam)
+                if (canSendChatMessage(attacker)) {
+                    attacker.sendMessage(Component.text("💧 Mining Fatigue activated! (1% chance)")
+                            .color(NamedTextColor.BLUE));
                 }
 
-                // Water Mace: 1% chance to give Mining Fatigue 3 for 2 seconds (only when holding mace)
-                if (maceManager.isWaterMace(weapon)) {
-                    if (random.nextInt(100) == 0) { // 1% chance (0 out of 100)
-                        victim.addPotionEffect(new PotionEffect(PotionEffectType.MINING_FATIGUE, 40, 2)); // 2 seconds, level 3
-
-                        // FIXED: Only send message if enough time has passed (prevent spam)
-                        if (canSendChatMessage(attacker)) {
-                            attacker.sendMessage(Component.text("💧 Mining Fatigue activated! (1% chance)")
-                                    .color(NamedTextColor.BLUE));
-                        }
-
-                        // Send message to victim if it's a player (also with cooldown)
-                        if (victim instanceof Player && canSendChatMessage(victim)) {
-                            ((Player) victim).sendMessage(Component.text("💧 You have been slowed by water magic!")
-                                    .color(NamedTextColor.DARK_BLUE));
-                        }
-
-                        // Visual effect
-                        victim.getWorld().spawnParticle(Particle.SPLASH, victim.getLocation().add(0, 1, 0), 15);
-                    }
+                // Send message to victim if it's a player (also with cooldown)
+                if (victim instanceof Player && canSendChatMessage(victim)) {
+                    ((Player) victim).sendMessage(Component.text("💧 You have been slowed by water magic!")
+                            .color(NamedTextColor.DARK_BLUE));
                 }
-            }
 
-            // Handle when summoner attacks something - make golem help
-            BuddyUpAbility.handleSummonerAttack(event, attacker, trustManager);
-        }
-
-        // Handle golem damage to prevent attacking summoner
-        if (event.getEntity() instanceof IronGolem) {
-            IronGolem golem = (IronGolem) event.getEntity();
-            BuddyUpAbility.handleGolemDamage(event, golem, trustManager);
-        }
-
-        // Handle golem protection for any living entity attacking a player
-        if (event.getEntity() instanceof Player && event.getDamager() instanceof LivingEntity) {
-            Player victim = (Player) event.getEntity();
-            LivingEntity damager = (LivingEntity) event.getDamager();
-
-            // Don't trigger if the victim is attacking their own golem
-            if (!(damager instanceof IronGolem &&
-                    damager.getCustomName() != null &&
-                    damager.getCustomName().contains(victim.getName()))) {
-                BuddyUpAbility.handlePlayerDamage(event, victim, trustManager);
+                // Visual effect
+                maceManager.getParticleBudget().spawn(Particle.SPLASH, victim.getLocation().add(0, 1, 0), 15);
             }
         }
     }
@@ -206,13 +154,13 @@ public class MaceListener implements Listener {
         if (!(event.getEntity() instanceof Player)) return;
 
         Player player = (Player) event.getEntity();
-        ItemStack mainHand = player.getInventory().getItemInMainHand();
-        ItemStack offHand = player.getInventory().getItemInOffHand();
+        MaceType mainHand = maceManager.classify(player.getInventory().getItemInMainHand());
+        MaceType offHand = maceManager.classify(player.getInventory().getItemInOffHand());
         String playerElement = elementManager.getPlayerElement(player);
 
         // Air Mace: Fall damage immunity (holding mace or air element)
         if (event.getCause() == EntityDamageEvent.DamageCause.FALL &&
-                (maceManager.isAirMace(mainHand) || maceManager.isAirMace(offHand) || "AIR".equals(playerElement))) {
+                (mainHand == MaceType.AIR || offHand == MaceType.AIR || "AIR".equals(playerElement))) {
             event.setCancelled(true);
         }
 
@@ -220,7 +168,7 @@ public class MaceListener implements Listener {
         if ((event.getCause() == EntityDamageEvent.DamageCause.FIRE ||
                 event.getCause() == EntityDamageEvent.DamageCause.FIRE_TICK ||
                 event.getCause() == EntityDamageEvent.DamageCause.LAVA) &&
-                (maceManager.isFireMace(mainHand) || maceManager.isFireMace(offHand))) {
+                (mainHand == MaceType.FIRE || offHand == MaceType.FIRE)) {
             event.setCancelled(true);
         }
     }
@@ -243,10 +191,8 @@ public class MaceListener implements Listener {
                 }
 
                 // Check if shooter has air mace in main hand or offhand ONLY
-                ItemStack mainHand = shooterPlayer.getInventory().getItemInMainHand();
-                ItemStack offHand = shooterPlayer.getInventory().getItemInOffHand();
-
-                if (maceManager.isAirMace(mainHand) || maceManager.isAirMace(offHand)) {
+                if (maceManager.classify(shooterPlayer.getInventory().getItemInMainHand()) == MaceType.AIR ||
+                        maceManager.classify(shooterPlayer.getInventory().getItemInOffHand()) == MaceType.AIR) {
                     // Reduced pulling effect - decreased force
                     Vector direction = shooterPlayer.getLocation().toVector()
                             .subtract(hitEntity.getLocation().toVector())
@@ -259,8 +205,8 @@ public class MaceListener implements Listener {
                     hitEntity.setVelocity(direction);
 
                     // Add visual effects for the pull
-                    hitEntity.getWorld().spawnParticle(Particle.CLOUD, hitEntity.getLocation(), 15);
-                    hitEntity.getWorld().spawnParticle(Particle.SMOKE, hitEntity.getLocation(), 10);
+                    maceManager.getParticleBudget().spawn(Particle.CLOUD, hitEntity.getLocation(), 15);
+                    maceManager.getParticleBudget().spawn(Particle.SMOKE, hitEntity.getLocation(), 10);
 
                     // FIXED: Only send message if enough time has passed (prevent spam)
                     if (hitEntity instanceof Player) {
@@ -283,11 +229,10 @@ public class MaceListener implements Listener {
     @EventHandler
     public void onPlayerItemConsume(PlayerItemConsumeEvent event) {
         Player player = event.getPlayer();
-        ItemStack mainHand = player.getInventory().getItemInMainHand();
-        ItemStack offHand = player.getInventory().getItemInOffHand();
 
         // Earth Mace: All food acts like golden apples (only when holding mace)
-        if (maceManager.isEarthMace(mainHand) || maceManager.isEarthMace(offHand)) {
+        if (maceManager.classify(player.getInventory().getItemInMainHand()) == MaceType.EARTH ||
+                maceManager.classify(player.getInventory().getItemInOffHand()) == MaceType.EARTH) {
             // Apply golden apple effects (Regeneration II for 5 seconds, Absorption for 2 minutes)
             player.addPotionEffect(new PotionEffect(PotionEffectType.REGENERATION, 100, 1));
             player.addPotionEffect(new PotionEffect(PotionEffectType.ABSORPTION, 2400, 0));
@@ -10,11 +10,14 @@ import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import rc.maces.managers.ElementManager;
 import rc.maces.managers.MaceManager;
+import rc.maces.managers.MaceType;
 
 public class MacePickupListener implements Listener {
 
@@ -26,15 +29,45 @@ public class MacePickupListener implements Listener {
         this.elementManager = elementManager;
     }
 
+    /**
+     * Stamp the type tag onto maces that were created before maces were tagged
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        maceManager.tagLegacyMaces(event.getPlayer());
+    }
+
+    /**
+     * Legacy maces stored in chests, shulker boxes and ender chests are upgraded when opened
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        maceManager.tagLegacyMaces(event.getInventory());
+    }
+
+    // Upgrade a legacy mace as soon as it is clicked, before the click checks below classify it
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryClickTagLegacy(InventoryClickEvent event) {
+        ItemStack clickedItem = event.getCurrentItem();
+        if (maceManager.tagLegacyMace(clickedItem)) {
+            event.setCurrentItem(clickedItem);
+        }
+    }
+
     @EventHandler
     public void onEntityPickupItem(EntityPickupItemEvent event) {
         if (!(event.getEntity() instanceof Player player)) {
             return;
         }
 
+        // Maces dropped on the ground or out of item frames may predate tagging
         ItemStack item = event.getItem().getItemStack();
+        if (maceManager.tagLegacyMace(item)) {
+            event.getItem().setItemStack(item);
+        }
+        MaceType type = maceManager.classify(item);
 
-        if (maceManager.isCustomMace(item)) {
+        if (type.isMace()) {
             // Count existing maces in inventory
             int maceCount = countMaces(player);
 
@@ -48,7 +81,7 @@ public class MacePickupListener implements Listener {
 
             // Always change element to match the mace
             String playerElement = elementManager.getPlayerElement(player);
-            String maceElement = getMaceElement(item);
+            String maceElement = type.getElement();
 
             if (maceElement != null && !maceElement.equals(playerElement)) {
                 elementManager.setPlayerElement(player, maceElement);
@@ -284,7 +317,7 @@ public class MacePickupListener implements Listener {
      * ADDED: Handle element switching logic
      */
     private void handleElementSwitch(Player player, ItemStack maceItem) {
-        String maceElement = getMaceElement(maceItem);
+        String maceElement = maceManager.classify(maceItem).getElement();
         if (maceElement != null) {
             String playerElement = elementManager.getPlayerElement(player);
             if (!maceElement.equals(playerElement)) {
@@ -312,18 +345,4 @@ public class MacePickupListener implements Listener {
         }
         return count;
     }
-
-    // Helper method to get element from mace type
-    private String getMaceElement(ItemStack mace) {
-        if (maceManager.isAirMace(mace)) {
-            return "AIR";
-        } else if (maceManager.isFireMace(mace)) {
-            return "FIRE";
-        } else if (maceManager.isWaterMace(mace)) {
-            return "WATER";
-        } else if (maceManager.isEarthMace(mace)) {
-            return "EARTH";
-        }
-        return null;
-    }
-}
\ No newline at end of file
+}
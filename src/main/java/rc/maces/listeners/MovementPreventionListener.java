@@ -6,84 +6,119 @@ import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.util.Vector;
-import rc.maces.abilities.earth.VineTrapAbility;
+import rc.maces.managers.CrowdControlManager;
 
 import java.util.UUID;
 
 /**
- * Listener to prevent movement for entities trapped by abilities like Vine Trap
+ * Listener to prevent movement for entities trapped by abilities like Vine Trap.
+ * The move handlers are only registered while some entity is held by teleports (see CrowdControlManager).
  */
 public class MovementPreventionListener implements Listener {
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        UUID playerId = event.getPlayer().getUniqueId();
+    private final JavaPlugin plugin;
+    private final CrowdControlManager crowdControl;
+    private final MoveGuard moveGuard = new MoveGuard();
+    private boolean guardActive = false;
 
-        // Check if this player is trapped by Vine Trap
-        if (VineTrapAbility.isEntityTrapped(playerId)) {
-            Location trapLocation = VineTrapAbility.getTrapLocation(playerId);
+    public MovementPreventionListener(JavaPlugin plugin, CrowdControlManager crowdControl) {
+        this.plugin = plugin;
+        this.crowdControl = crowdControl;
+        crowdControl.setTeleportHoldWatcher(this::setGuardActive);
+    }
 
-            if (trapLocation != null) {
-                Location from = event.getFrom();
-                Location to = event.getTo();
+    /**
+     * Register the move handlers while at least one entity is held by teleports, unregister them after.
+     * Paper only fires EntityMoveEvent while something listens to it, so with nothing trapped
+     * mob movement costs nothing at all.
+     */
+    public void setGuardActive(boolean active) {
+        if (active == guardActive) return;
+
+        guardActive = active;
+        if (active) {
+            plugin.getServer().getPluginManager().registerEvents(moveGuard, plugin);
+        } else {
+            HandlerList.unregisterAll(moveGuard);
+        }
+    }
 
-                // Only prevent horizontal movement and significant vertical movement, allow looking around
-                if (to != null && (to.getX() != from.getX() || to.getZ() != from.getZ() || Math.abs(to.getY() - from.getY()) > 0.1)) {
-                    // Set the destination to the trap location but preserve head movement
-                    Location newTo = trapLocation.clone();
-                    newTo.setYaw(to.getYaw());
-                    newTo.setPitch(to.getPitch());
+    public boolean isGuardActive() {
+        return guardActive;
+    }
 
-                    event.setTo(newTo);
+    /**
+     * Move handlers, only registered while the guard is active
+     */
+    private class MoveGuard implements Listener {
 
-                    // Cancel any velocity to prevent jumping or other movement
-                    event.getPlayer().setVelocity(new Vector(0, 0, 0));
-                }
-            }
-        }
-    }
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onPlayerMove(PlayerMoveEvent event) {
+            UUID playerId = event.getPlayer().getUniqueId();
 
-    // Handle entity movement for non-player entities (if EntityMoveEvent exists in your server version)
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onEntityMove(EntityMoveEvent event) {
-        LivingEntity entity = event.getEntity();
-        UUID entityId = entity.getUniqueId();
+            // Check if this player is rooted (Vine Trap) and not already held by root attributes
+            if (crowdControl.isHeldByTeleport(playerId)) {
+                Location trapLocation = crowdControl.getRootAnchor(playerId);
 
-        // Check if this entity is trapped by Vine Trap
-        if (VineTrapAbility.isEntityTrapped(entityId)) {
-            Location trapLocation = VineTrapAbility.getTrapLocation(entityId);
+                if (trapLocation != null) {
+                    Location from = event.getFrom();
+                    Location to = event.getTo();
 
-            if (trapLocation != null) {
-                Location from = event.getFrom();
-                Location to = event.getTo();
+                    // Only prevent horizontal movement and significant vertical movement, allow looking around
+                    if (to != null && (to.getX() != from.getX() || to.getZ() != from.getZ() || Math.abs(to.getY() - from.getY()) > 0.1)) {
+                        // Set the destination to the trap location but preserve head movement
+                        Location newTo = trapLocation.clone();
+                        newTo.setYaw(to.getYaw());
+                        newTo.setPitch(to.getPitch());
 
-                // Prevent any movement from the trap location
-                if (from.distance(trapLocation) > 0.5 || to.distance(trapLocation) > 0.5) {
-                    // Cancel the movement
-                    event.setCancelled(true);
+                        event.setTo(newTo);
 
-                    // Teleport back to trap location
-                    entity.teleport(trapLocation);
-                    entity.setVelocity(new Vector(0, 0, 0));
+                        // Cancel any velocity to prevent jumping or other movement
+                        event.getPlayer().setVelocity(new Vector(0, 0, 0));
+                    }
+                }
+            }
+        }
+
+        // Handle entity movement for non-player entities (if EntityMoveEvent exists in your server version)
+        @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+        public void onEntityMove(EntityMoveEvent event) {
+            LivingEntity entity = event.getEntity();
+            UUID entityId = entity.getUniqueId();
+
+            // Check if this entity is rooted (Vine Trap) and not already held by root attributes
+            if (crowdControl.isHeldByTeleport(entityId)) {
+                Location trapLocation = crowdControl.getRootAnchor(entityId);
+
+                if (trapLocation != null) {
+                    Location from = event.getFrom();
+                    Location to = event.getTo();
+
+                    // Prevent any movement from the trap location
+                    if (from.distance(trapLocation) > 0.5 || to.distance(trapLocation) > 0.5) {
+                        // Cancel the movement
+                        event.setCancelled(true);
+
+                        // Teleport back to trap location
+                        entity.teleport(trapLocation);
+                        entity.setVelocity(new Vector(0, 0, 0));
+                    }
                 }
             }
         }
     }
 
     /**
-     * Clean up trapped entities when players quit to prevent memory leaks
+     * Release players from crowd control when they quit so they don't keep a zero walk speed
      */
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        UUID playerId = event.getPlayer().getUniqueId();
-
-        // Release the player if they're trapped when they quit
-        if (VineTrapAbility.isEntityTrapped(playerId)) {
-            VineTrapAbility.releaseEntity(playerId);
-        }
+        crowdControl.release(event.getPlayer().getUniqueId());
     }
 }
\ No newline at end of file
@@ -5,12 +5,13 @@ import org.bukkit.Material;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import rc.maces.managers.ElementManager;
+import rc.maces.managers.HeldMaceState;
 import rc.maces.managers.MaceManager;
+import rc.maces.managers.MaceType;
 import rc.maces.managers.TrustManager;
 
 import java.util.*;
@@ -30,14 +31,14 @@ public class PassiveEffectsListener extends BukkitRunnable {
     @Override
     public void run() {
         for (Player player : Bukkit.getOnlinePlayers()) {
-            ItemStack mainHand = player.getInventory().getItemInMainHand();
-            ItemStack offHand = player.getInventory().getItemInOffHand();
+            // Held maces come from the tracker, so no ItemStack is read here
+            HeldMaceState held = maceManager.getHeldMaceTracker().getState(player.getUniqueId());
 
             // Check if player has any custom mace in either hand
-            boolean hasFireMace = maceManager.isFireMace(mainHand) || maceManager.isFireMace(offHand);
-            boolean hasWaterMace = maceManager.isWaterMace(mainHand) || maceManager.isWaterMace(offHand);
-            boolean hasEarthMace = maceManager.isEarthMace(mainHand) || maceManager.isEarthMace(offHand);
-            boolean hasAirMace = maceManager.isAirMace(mainHand) || maceManager.isAirMace(offHand);
+            boolean hasFireMace = held != null && held.isHolding(MaceType.FIRE);
+            boolean hasWaterMace = held != null && held.isHolding(MaceType.WATER);
+            boolean hasEarthMace = held != null && held.isHolding(MaceType.EARTH);
+            boolean hasAirMace = held != null && held.isHolding(MaceType.AIR);
 
             // Get player's element for role-based passives
             String playerElement = elementManager.getPlayerElement(player);
@@ -0,0 +1,431 @@
+package rc.maces.managers;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import rc.maces.tasks.DeferredActionWheel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Ally groups (parties): everyone in the same group is treated as trusted by everyone else in it,
+ * without a /trust handshake per pair.
+ * Each member's interned trust id maps to a group id in a flat int array, so
+ * "are A and B in the same group" is two array reads and a compare no matter how big the group is.
+ * Group ids start at 1, 0 means no group.
+ */
+public class AllyGroupManager {
+
+    private static final int MIN_NAME_LENGTH = 3;
+    private static final int MAX_NAME_LENGTH = 16;
+
+    private final JavaPlugin plugin;
+    private final TrustGraph trustGraph;
+    private final DeferredActionWheel deferredActionWheel;
+    private final Map<Integer, AllyGroup> groups = new HashMap<>();
+    private final Map<UUID, Integer> pendingInvites = new HashMap<>(); // Invited player -> group id
+    private final Map<UUID, DeferredActionWheel.Handle> pendingInviteExpiries = new HashMap<>();
+    private int[] groupByPlayer = new int[64]; // Indexed by interned trust id
+    private int nextGroupId = 1;
+    private final File dataFile;
+    private final FileConfiguration dataConfig;
+
+    /**
+     * A named group of allies with a leader
+     */
+    public static class AllyGroup {
+        private final int id;
+        private final String name;
+        private UUID leader;
+        private final Set<UUID> members = new LinkedHashSet<>();
+
+        AllyGroup(int id, String name, UUID leader) {
+            this.id = id;
+            this.name = name;
+            this.leader = leader;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+        public UUID getLeader() { return leader; }
+        public Set<UUID> getMembers() { return Collections.unmodifiableSet(members); }
+        public int getSize() { return members.size(); }
+    }
+
+    AllyGroupManager(JavaPlugin plugin, TrustGraph trustGraph, DeferredActionWheel deferredActionWheel) {
+        this.plugin = plugin;
+        this.trustGraph = trustGraph;
+        this.deferredActionWheel = deferredActionWheel;
+        this.dataFile = new File(plugin.getDataFolder(), "groups.yml");
+        this.dataConfig = YamlConfiguration.loadConfiguration(dataFile);
+
+        loadGroups();
+    }
+
+    // ============ LOOKUPS ============
+
+    /**
+     * Check if two interned players are in the same group
+     */
+    boolean sameGroup(int id1, int id2) {
+        int group = groupOf(id1);
+        return group != 0 && group == groupOf(id2);
+    }
+
+    /**
+     * Group id of an interned player, 0 if none
+     */
+    int groupOf(int id) {
+        return id >= 0 && id < groupByPlayer.length ? groupByPlayer[id] : 0;
+    }
+
+    /**
+     * Get the group a player belongs to, or null
+     */
+    public AllyGroup getGroup(UUID playerId) {
+        int group = groupOf(trustGraph.idOf(playerId));
+        return group != 0 ? groups.get(group) : null;
+    }
+
+    public AllyGroup getGroupByName(String name) {
+        for (AllyGroup group : groups.values()) {
+            if (group.name.equalsIgnoreCase(name)) {
+                return group;
+            }
+        }
+        return null;
+    }
+
+    public Collection<AllyGroup> getGroups() {
+        return Collections.unmodifiableCollection(groups.values());
+    }
+
+    // ============ GROUP ACTIONS ============
+
+    public void createGroup(Player leader, String name) {
+        if (getGroup(leader.getUniqueId()) != null) {
+            leader.sendMessage(Component.text("❌ You are already in an ally group! Leave it first with /ally leave")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (name.length() < MIN_NAME_LENGTH || name.length() > MAX_NAME_LENGTH || !name.matches("[A-Za-z0-9_]+")) {
+            leader.sendMessage(Component.text("❌ Group names must be " + MIN_NAME_LENGTH + "-" + MAX_NAME_LENGTH +
+                            " letters, numbers or underscores!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (getGroupByName(name) != null) {
+            leader.sendMessage(Component.text("❌ An ally group named '" + name + "' already exists!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        AllyGroup group = new AllyGroup(nextGroupId++, name, leader.getUniqueId());
+        groups.put(group.id, group);
+        addMember(group, leader.getUniqueId());
+        saveGroups();
+
+        leader.sendMessage(Component.text("✅ Ally group '" + name + "' created!")
+                .color(NamedTextColor.GREEN));
+        leader.sendMessage(Component.text("Use /ally invite <player> to add members.")
+                .color(NamedTextColor.YELLOW));
+
+        plugin.getLogger().info(leader.getName() + " created ally group " + name);
+    }
+
+    public void invitePlayer(Player inviter, Player target) {
+        AllyGroup group = getGroup(inviter.getUniqueId());
+        if (group == null) {
+            inviter.sendMessage(Component.text("❌ You are not in an ally group! Create one with /ally create <name>")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (!group.leader.equals(inviter.getUniqueId())) {
+            inviter.sendMessage(Component.text("❌ Only the group leader can invite players!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (inviter.equals(target)) {
+            inviter.sendMessage(Component.text("❌ You cannot invite yourself!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (getGroup(target.getUniqueId()) != null) {
+            inviter.sendMessage(Component.text("❌ " + target.getName() + " is already in an ally group!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        Integer existingInvite = pendingInvites.get(target.getUniqueId());
+        if (existingInvite != null && existingInvite == group.id) {
+            inviter.sendMessage(Component.text("❌ " + target.getName() + " already has a pending invite to your group!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        // A newer invite replaces an older one from another group
+        clearPendingInvite(target.getUniqueId());
+        pendingInvites.put(target.getUniqueId(), group.id);
+
+        inviter.sendMessage(Component.text("🤝 Invited " + target.getName() + " to " + group.name + "!")
+                .color(NamedTextColor.GREEN));
+
+        Component acceptButton = Component.text("[JOIN]")
+                .color(NamedTextColor.GREEN)
+                .decoration(TextDecoration.BOLD, true)
+                .clickEvent(ClickEvent.runCommand("/ally accept"))
+                .hoverEvent(Component.text("Click to join the ally group").color(NamedTextColor.GREEN));
+
+        Component denyButton = Component.text("[DENY]")
+                .color(NamedTextColor.RED)
+                .decoration(TextDecoration.BOLD, true)
+                .clickEvent(ClickEvent.runCommand("/ally deny"))
+                .hoverEvent(Component.text("Click to deny the invite").color(NamedTextColor.RED));
+
+        target.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+        target.sendMessage(Component.text("🤝 ALLY GROUP INVITE 🤝")
+                .color(NamedTextColor.GOLD)
+                .decoration(TextDecoration.BOLD, true));
+        target.sendMessage(Component.text(inviter.getName() + " invited you to join " + group.name +
+                        " (" + group.getSize() + " members)")
+                .color(NamedTextColor.YELLOW));
+        target.sendMessage(Component.text("Everyone in the group is protected from each other.")
+                .color(NamedTextColor.GRAY));
+        target.sendMessage(acceptButton.append(Component.text("  ").color(NamedTextColor.WHITE)).append(denyButton));
+        target.sendMessage(Component.text("Invite expires in 60 seconds")
+                .color(NamedTextColor.DARK_GRAY));
+        target.sendMessage(Component.text("═══════════════════════════════════")
+                .color(NamedTextColor.GOLD));
+
+        // Auto-remove invite after 60 seconds
+        int groupId = group.id;
+        DeferredActionWheel.Handle expiry = deferredActionWheel.schedule(1200L, () -> { // 60 seconds
+            Integer invite = pendingInvites.get(target.getUniqueId());
+            if (invite != null && invite == groupId) {
+                pendingInvites.remove(target.getUniqueId());
+                pendingInviteExpiries.remove(target.getUniqueId());
+                if (target.isOnline()) {
+                    target.sendMessage(Component.text("⏰ Your invite to " + group.name + " has expired.")
+                            .color(NamedTextColor.GRAY));
+                }
+            }
+        });
+        pendingInviteExpiries.put(target.getUniqueId(), expiry);
+    }
+
+    public void acceptInvite(Player player) {
+        Integer groupId = pendingInvites.get(player.getUniqueId());
+        clearPendingInvite(player.getUniqueId());
+
+        AllyGroup group = groupId != null ? groups.get(groupId) : null;
+        if (group == null) {
+            player.sendMessage(Component.text("❌ You don't have any pending ally group invites!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (getGroup(player.getUniqueId()) != null) {
+            player.sendMessage(Component.text("❌ You are already in an ally group! Leave it first with /ally leave")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        addMember(group, player.getUniqueId());
+        saveGroups();
+
+        broadcast(group, Component.text("🤝 " + player.getName() + " joined " + group.name + "!")
+                .color(NamedTextColor.GREEN));
+        plugin.getLogger().info(player.getName() + " joined ally group " + group.name);
+    }
+
+    public void denyInvite(Player player) {
+        Integer groupId = pendingInvites.get(player.getUniqueId());
+        if (groupId == null) {
+            player.sendMessage(Component.text("❌ You don't have any pending ally group invites!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        clearPendingInvite(player.getUniqueId());
+        player.sendMessage(Component.text("❌ Ally group invite denied.")
+                .color(NamedTextColor.RED));
+
+        AllyGroup group = groups.get(groupId);
+        if (group != null) {
+            Player leader = Bukkit.getPlayer(group.leader);
+            if (leader != null && leader.isOnline()) {
+                leader.sendMessage(Component.text("❌ " + player.getName() + " denied the invite to " + group.name + ".")
+                        .color(NamedTextColor.RED));
+            }
+        }
+    }
+
+    public void leaveGroup(Player player) {
+        AllyGroup group = getGroup(player.getUniqueId());
+        if (group == null) {
+            player.sendMessage(Component.text("❌ You are not in an ally group!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        removeMember(group, player.getUniqueId());
+        player.sendMessage(Component.text("💔 You left " + group.name + ".")
+                .color(NamedTextColor.YELLOW));
+
+        if (group.members.isEmpty()) {
+            groups.remove(group.id);
+            plugin.getLogger().info("Ally group " + group.name + " was disbanded (last member left)");
+        } else {
+            // Hand leadership to the longest standing member
+            if (group.leader.equals(player.getUniqueId())) {
+                group.leader = group.members.iterator().next();
+                Player newLeader = Bukkit.getPlayer(group.leader);
+                if (newLeader != null) {
+                    broadcast(group, Component.text("👑 " + newLeader.getName() + " is now the leader of " + group.name + ".")
+                            .color(NamedTextColor.GOLD));
+                }
+            }
+            broadcast(group, Component.text("💔 " + player.getName() + " left " + group.name + ".")
+                    .color(NamedTextColor.YELLOW));
+        }
+
+        saveGroups();
+    }
+
+    public void disbandGroup(Player player) {
+        AllyGroup group = getGroup(player.getUniqueId());
+        if (group == null) {
+            player.sendMessage(Component.text("❌ You are not in an ally group!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        if (!group.leader.equals(player.getUniqueId())) {
+            player.sendMessage(Component.text("❌ Only the group leader can disband the group!")
+                    .color(NamedTextColor.RED));
+            return;
+        }
+
+        broadcast(group, Component.text("💔 " + group.name + " has been disbanded by " + player.getName() + ".")
+                .color(NamedTextColor.YELLOW));
+
+        for (UUID member : new ArrayList<>(group.members)) {
+            removeMember(group, member);
+        }
+        groups.remove(group.id);
+
+        // Drop invites to the group that no longer exists
+        for (UUID invited : new ArrayList<>(pendingInvites.keySet())) {
+            if (pendingInvites.get(invited) == group.id) {
+                clearPendingInvite(invited);
+            }
+        }
+
+        saveGroups();
+        plugin.getLogger().info(player.getName() + " disbanded ally group " + group.name);
+    }
+
+    // ============ INTERNALS ============
+
+    private void addMember(AllyGroup group, UUID playerId) {
+        int id = trustGraph.intern(playerId);
+        if (id >= groupByPlayer.length) {
+            groupByPlayer = Arrays.copyOf(groupByPlayer, Math.max(id + 1, groupByPlayer.length * 2));
+        }
+        groupByPlayer[id] = group.id;
+        group.members.add(playerId);
+    }
+
+    private void removeMember(AllyGroup group, UUID playerId) {
+        int id = trustGraph.idOf(playerId);
+        if (id >= 0 && id < groupByPlayer.length && groupByPlayer[id] == group.id) {
+            groupByPlayer[id] = 0;
+        }
+        group.members.remove(playerId);
+    }
+
+    private void clearPendingInvite(UUID playerId) {
+        pendingInvites.remove(playerId);
+        DeferredActionWheel.Handle expiry = pendingInviteExpiries.remove(playerId);
+        if (expiry != null) {
+            expiry.cancel();
+        }
+    }
+
+    private void broadcast(AllyGroup group, Component message) {
+        for (UUID member : group.members) {
+            Player player = Bukkit.getPlayer(member);
+            if (player != null && player.isOnline()) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    private void loadGroups() {
+        ConfigurationSection section = dataConfig.getConfigurationSection("groups");
+        if (section == null) {
+            return;
+        }
+
+        for (String key : section.getKeys(false)) {
+            try {
+                ConfigurationSection groupSection = section.getConfigurationSection(key);
+                if (groupSection == null) continue;
+
+                AllyGroup group = new AllyGroup(nextGroupId++, groupSection.getString("name", key),
+                        UUID.fromString(groupSection.getString("leader")));
+                for (String member : groupSection.getStringList("members")) {
+                    addMember(group, UUID.fromString(member));
+                }
+
+                if (group.members.isEmpty()) continue;
+                if (!group.members.contains(group.leader)) {
+                    group.leader = group.members.iterator().next();
+                }
+                groups.put(group.id, group);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                plugin.getLogger().warning("Failed to load ally group " + key + ": " + e.getMessage());
+            }
+        }
+
+        plugin.getLogger().info("Loaded " + groups.size() + " ally groups from file.");
+    }
+
+    private void saveGroups() {
+        try {
+            dataConfig.set("groups", null);
+            for (AllyGroup group : groups.values()) {
+                String path = "groups." + group.name;
+                List<String> members = new ArrayList<>();
+                for (UUID member : group.members) {
+                    members.add(member.toString());
+                }
+                dataConfig.set(path + ".name", group.name);
+                dataConfig.set(path + ".leader", group.leader.toString());
+                dataConfig.set(path + ".members", members);
+            }
+            dataConfig.save(dataFile);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save ally groups: " + e.getMessage());
+        }
+    }
+
+    public void saveAllData() {
+        saveGroups();
+    }
+}
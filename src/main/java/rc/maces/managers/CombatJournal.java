@@ -0,0 +1,404 @@
+package rc.maces.managers;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Asynchronous combat event journal, replacing the per-hit console logging.
+ * Callers fill a preallocated slot in a lock-free ring with the raw event (template + arguments),
+ * a background thread formats it, appends it to a rolling file in plugins/<plugin>/combat-logs
+ * and keeps the last lines in memory for /combat log.
+ * Each category has its own minimum level and sampling rate (config.yml, journal section).
+ * If the writer falls behind and the ring is full, events are dropped and counted instead of blocking.
+ *
+ * Arguments are formatted on the writer thread, so only pass immutable values (names, numbers, enums).
+ */
+public class CombatJournal {
+
+    public enum Severity {
+        DEBUG, INFO, WARN
+    }
+
+    public enum Category {
+        PVP, PROJECTILE, SAFE_ZONE, ALLY, COMBAT_TAG, COMBAT_LOG, ELYTRA, VINE_TRAP, ADMIN;
+
+        private final String key = name().toLowerCase().replace('_', '-');
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Category fromKey(String key) {
+            for (Category category : values()) {
+                if (category.key.equalsIgnoreCase(key) || category.name().equalsIgnoreCase(key)) {
+                    return category;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final int RING_SIZE = 4096; // Must be a power of two
+    private static final int TAIL_SIZE = 200;
+    private static final long IDLE_PARK_NANOS = 50_000_000L; // 50ms
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // One journal event. Fields are written by the producer before the volatile sequence publishes them.
+    private static final class Slot {
+        volatile long sequence = -1;
+        long time;
+        Category category;
+        Severity severity;
+        String template;
+        Object arg0, arg1, arg2;
+    }
+
+    private final JavaPlugin plugin;
+    private final boolean enabled;
+    private final Slot[] ring = new Slot[RING_SIZE];
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed = 0;
+
+    // Per category filtering, indexed by ordinal
+    private final int[] minSeverity = new int[Category.values().length];
+    private final int[] sampleEvery = new int[Category.values().length];
+    private final int[] sampleCounters = new int[Category.values().length];
+    private final int consoleSeverity;
+
+    // Rolling file (writer thread only)
+    private final File logFolder;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private OutputStream out;
+    private long fileBytes;
+
+    // Last formatted lines for /combat log
+    private final String[] tailLines = new String[TAIL_SIZE];
+    private final Category[] tailCategories = new Category[TAIL_SIZE];
+    private int tailHead = 0;
+    private int tailCount = 0;
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public CombatJournal(JavaPlugin plugin) {
+        this.plugin = plugin;
+        FileConfiguration config = plugin.getConfig();
+
+        this.enabled = config.getBoolean("journal.enabled", true);
+        this.logFolder = new File(plugin.getDataFolder(), "combat-logs");
+        this.maxFileBytes = Math.max(16, config.getLong("journal.max-file-kb", 1024)) * 1024L;
+        this.maxFiles = Math.max(1, config.getInt("journal.max-files", 5));
+        this.consoleSeverity = parseSeverity(config.getString("journal.console-level"), Severity.WARN).ordinal();
+
+        Severity defaultSeverity = parseSeverity(config.getString("journal.level"), Severity.INFO);
+        ConfigurationSection categories = config.getConfigurationSection("journal.categories");
+        for (Category category : Category.values()) {
+            ConfigurationSection section = categories != null ? categories.getConfigurationSection(category.getKey()) : null;
+            Severity severity = section != null ? parseSeverity(section.getString("level"), defaultSeverity) : defaultSeverity;
+            minSeverity[category.ordinal()] = severity.ordinal();
+            sampleEvery[category.ordinal()] = section != null ? Math.max(1, section.getInt("sample", 1)) : 1;
+        }
+
+        for (int i = 0; i < RING_SIZE; i++) {
+            ring[i] = new Slot();
+        }
+    }
+
+    /**
+     * Start the background writer thread
+     */
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, plugin.getName() + "-CombatJournal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer after it has written everything still queued
+     */
+    public void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Check whether an event would be recorded, so callers can skip building expensive arguments
+     */
+    public boolean isEnabled(Category category, Severity severity) {
+        return enabled && severity.ordinal() >= minSeverity[category.ordinal()];
+    }
+
+    public void log(Category category, Severity severity, String template) {
+        log(category, severity, template, null, null, null);
+    }
+
+    public void log(Category category, Severity severity, String template, Object arg0) {
+        log(category, severity, template, arg0, null, null);
+    }
+
+    public void log(Category category, Severity severity, String template, Object arg0, Object arg1) {
+        log(category, severity, template, arg0, arg1, null);
+    }
+
+    /**
+     * Record an event. Each {} in the template is replaced by the next argument on the writer thread.
+     */
+    public void log(Category category, Severity severity, String template, Object arg0, Object arg1, Object arg2) {
+        if (!isEnabled(category, severity)) {
+            return;
+        }
+
+        // Sampling: keep 1 in every N events of this category (warnings are always kept)
+        int index = category.ordinal();
+        if (sampleEvery[index] > 1 && severity != Severity.WARN && sampleCounters[index]++ % sampleEvery[index] != 0) {
+            return;
+        }
+
+        // Claim a sequence number, or drop the event if the writer is a full ring behind
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= RING_SIZE) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = ring[(int) (sequence & (RING_SIZE - 1))];
+        slot.time = System.currentTimeMillis();
+        slot.category = category;
+        slot.severity = severity;
+        slot.template = template;
+        slot.arg0 = arg0;
+        slot.arg1 = arg1;
+        slot.arg2 = arg2;
+        slot.sequence = sequence; // Publish
+    }
+
+    /**
+     * Number of events dropped because the writer could not keep up
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Most recent journal lines (oldest first), optionally only one category
+     */
+    public List<String> getTail(int limit, Category filter) {
+        List<String> lines = new ArrayList<>();
+        synchronized (tailLines) {
+            for (int i = 0; i < tailCount && lines.size() < limit; i++) {
+                int index = Math.floorMod(tailHead - 1 - i, TAIL_SIZE);
+                if (filter == null || tailCategories[index] == filter) {
+                    lines.add(tailLines[index]);
+                }
+            }
+        }
+        Collections.reverse(lines);
+        return lines;
+    }
+
+    // ============ WRITER THREAD ============
+
+    private void drainLoop() {
+        long next = consumed;
+
+        try {
+            openFile();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not open combat journal file, keeping in-memory tail only", e);
+        }
+
+        while (true) {
+            Slot slot = ring[(int) (next & (RING_SIZE - 1))];
+
+            if (slot.sequence != next) {
+                // Nothing new: flush what we have, then either stop or wait
+                flushFile();
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            Category category = slot.category;
+            Severity severity = slot.severity;
+            String line = format(slot);
+
+            // Release the slot before doing any I/O
+            slot.template = null;
+            slot.arg0 = slot.arg1 = slot.arg2 = null;
+            consumed = ++next;
+
+            write(line);
+            addToTail(category, line);
+
+            if (severity.ordinal() >= consoleSeverity) {
+                plugin.getLogger().warning("[Combat] " + line);
+            }
+        }
+
+        closeFile();
+    }
+
+    private String format(Slot slot) {
+        StringBuilder builder = new StringBuilder(96);
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(slot.time), builder);
+        builder.append(' ').append(slot.severity.name().charAt(0))
+                .append(' ').append(slot.category.getKey())
+                .append(' ');
+
+        String template = slot.template;
+        Object[] args = {slot.arg0, slot.arg1, slot.arg2};
+        int argIndex = 0;
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf("{}", start)) >= 0 && argIndex < args.length) {
+            builder.append(template, start, placeholder).append(args[argIndex++]);
+            start = placeholder + 2;
+        }
+        builder.append(template, start, template.length());
+        return builder.toString();
+    }
+
+    private void addToTail(Category category, String line) {
+        synchronized (tailLines) {
+            tailLines[tailHead] = line;
+            tailCategories[tailHead] = category;
+            tailHead = (tailHead + 1) % TAIL_SIZE;
+            tailCount = Math.min(tailCount + 1, TAIL_SIZE);
+        }
+    }
+
+    private void write(String line) {
+        if (out == null) {
+            return;
+        }
+
+        byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+        try {
+            if (fileBytes + bytes.length > maxFileBytes) {
+                rollFiles();
+            }
+            out.write(bytes);
+            fileBytes += bytes.length;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write combat journal, disabling file output", e);
+            closeFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        if (!logFolder.exists() && !logFolder.mkdirs()) {
+            throw new IOException("Could not create " + logFolder);
+        }
+
+        File current = new File(logFolder, "combat.log");
+        fileBytes = current.length();
+        out = new BufferedOutputStream(new FileOutputStream(current, true), 16 * 1024);
+    }
+
+    /**
+     * combat.log -> combat.1.log -> ... -> combat.<max-files - 1>.log, the oldest is deleted
+     */
+    private void rollFiles() throws IOException {
+        closeFile();
+
+        File oldest = new File(logFolder, "combat." + (maxFiles - 1) + ".log");
+        if (oldest.exists() && !oldest.delete()) {
+            plugin.getLogger().warning("Could not delete old combat journal " + oldest.getName());
+        }
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            File file = new File(logFolder, "combat." + i + ".log");
+            if (file.exists()) {
+                file.renameTo(new File(logFolder, "combat." + (i + 1) + ".log"));
+            }
+        }
+
+        File current = new File(logFolder, "combat.log");
+        if (maxFiles > 1) {
+            current.renameTo(new File(logFolder, "combat.1.log"));
+        } else {
+            current.delete();
+        }
+
+        openFile();
+    }
+
+    private void flushFile() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to flush combat journal", e);
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to close combat journal", e);
+        }
+        out = null;
+    }
+
+    private static Severity parseSeverity(String value, Severity fallback) {
+        if (value != null) {
+            for (Severity severity : Severity.values()) {
+                if (severity.name().equalsIgnoreCase(value.trim())) {
+                    return severity;
+                }
+            }
+        }
+        return fallback;
+    }
+}
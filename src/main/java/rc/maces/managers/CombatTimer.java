@@ -8,59 +8,99 @@ import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
-import org.bukkit.entity.Projectile;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
+import rc.maces.damage.DamageContext;
+import rc.maces.events.PlayerCombatExpireEvent;
+import rc.maces.events.PlayerCombatTagEvent;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.UUID;
 
 public class CombatTimer implements Listener {
 
     private final JavaPlugin plugin;
     private final TrustManager trustManager;
-    private final Map<UUID, Long> combatPlayers = new HashMap<>();
+    private final CombatJournal journal;
+    private final Map<UUID, Long> combatPlayers = new HashMap<>(); // Player -> time their combat ends (ms)
     private final Map<UUID, UUID> combatCause = new HashMap<>(); // Track who caused each player's combat
     private static final long COMBAT_TIME = 15000; // 15 seconds in milliseconds
 
-    // Enhanced safe zone system with cuboid support
-    private final Map<String, SafeZone> safeZones = new HashMap<>();
+    // Combat end times ordered soonest first. Re-tagging pushes a new entry, the old one is
+    // skipped when it comes up because it no longer matches the player's current end time.
+    private final PriorityQueue<CombatExpiry> expiryQueue = new PriorityQueue<>();
+
+    // Enhanced safe zone system with cuboid support - any number of zones per world, spatially indexed
+    private final Map<String, SafeZoneIndex> safeZoneIndexes = new HashMap<>();
+
+    // Zone each online player is standing in (absent = not in a zone).
+    // Only recomputed when they cross a block boundary, teleport, change world or respawn.
+    private final Map<UUID, SafeZone> currentSafeZones = new HashMap<>();
     private final File safeZoneFile;
     private final FileConfiguration safeZoneConfig;
 
-    public CombatTimer(JavaPlugin plugin, TrustManager trustManager) {
+    public CombatTimer(JavaPlugin plugin, TrustManager trustManager, CombatJournal journal) {
         this.plugin = plugin;
         this.trustManager = trustManager;
+        this.journal = journal;
 
         // Initialize safe zone file
         this.safeZoneFile = new File(plugin.getDataFolder(), "safezones.yml");
         this.safeZoneConfig = YamlConfiguration.loadConfiguration(safeZoneFile);
 
         loadSafeZonesFromFile();
-        startCleanupTask();
+        refreshAllSafeZoneMemberships(); // Players already online on reload
+        startExpiryTask();
+    }
+
+    private static class CombatExpiry implements Comparable<CombatExpiry> {
+        final long endTime;
+        final UUID playerId;
+
+        CombatExpiry(long endTime, UUID playerId) {
+            this.endTime = endTime;
+            this.playerId = playerId;
+        }
+
+        @Override
+        public int compareTo(CombatExpiry other) {
+            return Long.compare(endTime, other.endTime);
+        }
     }
 
     /**
      * Enhanced SafeZone class that supports cuboid regions (pos1 to pos2)
      */
     public static class SafeZone {
+        private final String worldName;
         private final int minX, minY, minZ;
         private final int maxX, maxY, maxZ;
         private final String name;
         private final long createdTime;
         private final String createdBy;
 
-        public SafeZone(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, String name, String createdBy) {
+        public SafeZone(String worldName, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, String name, String createdBy) {
+            this.worldName = worldName;
             // Ensure min/max are correct
             this.minX = Math.min(minX, maxX);
             this.maxX = Math.max(minX, maxX);
@@ -74,8 +114,8 @@ public class CombatTimer implements Listener {
         }
 
         // Legacy constructor for backwards compatibility (circular to cuboid conversion)
-        public SafeZone(int centerX, int centerZ, int radius, String name, String createdBy) {
-            this(centerX - radius, -64, centerZ - radius,
+        public SafeZone(String worldName, int centerX, int centerZ, int radius, String name, String createdBy) {
+            this(worldName, centerX - radius, -64, centerZ - radius,
                     centerX + radius, 320, centerZ + radius, name, createdBy);
         }
 
@@ -87,15 +127,29 @@ public class CombatTimer implements Listener {
                 return false;
             }
 
-            int x = location.getBlockX();
-            int y = location.getBlockY();
-            int z = location.getBlockZ();
+            return location.getWorld().getName().equals(worldName) &&
+                    contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
 
+        /**
+         * Check if block coordinates are inside this zone (world is not checked)
+         */
+        public boolean contains(int x, int y, int z) {
             return x >= minX && x <= maxX &&
                     y >= minY && y <= maxY &&
                     z >= minZ && z <= maxZ;
         }
 
+        /**
+         * Squared block distance from coordinates to the closest point of this zone (0 if inside)
+         */
+        public long distanceSquared(int x, int y, int z) {
+            long dx = Math.max(0, Math.max(minX - x, x - maxX));
+            long dy = Math.max(0, Math.max(minY - y, y - maxY));
+            long dz = Math.max(0, Math.max(minZ - z, z - maxZ));
+            return dx * dx + dy * dy + dz * dz;
+        }
+
         /**
          * Get the closest distance to the edge of the safe zone
          */
@@ -103,16 +157,8 @@ public class CombatTimer implements Listener {
             if (location == null) return Double.MAX_VALUE;
             if (isInside(location)) return -1; // Inside the zone
 
-            int x = location.getBlockX();
-            int y = location.getBlockY();
-            int z = location.getBlockZ();
-
-            // Calculate distance to the closest face of the cuboid
-            double dx = Math.max(0, Math.max(minX - x, x - maxX));
-            double dy = Math.max(0, Math.max(minY - y, y - maxY));
-            double dz = Math.max(0, Math.max(minZ - z, z - maxZ));
-
-            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+            // Distance to the closest face of the cuboid
+            return Math.sqrt(distanceSquared(location.getBlockX(), location.getBlockY(), location.getBlockZ()));
         }
 
         /**
@@ -137,6 +183,7 @@ public class CombatTimer implements Listener {
         public long getTotalBlocks() { return (long)getSizeX() * getSizeY() * getSizeZ(); }
 
         // Info getters
+        public String getWorldName() { return worldName; }
         public String getName() { return name; }
         public long getCreatedTime() { return createdTime; }
         public String getCreatedBy() { return createdBy; }
@@ -165,84 +212,62 @@ public class CombatTimer implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onPlayerDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!(event.getEntity() instanceof Player)) {
-            return;
-        }
-
-        Player victim = (Player) event.getEntity();
-        Player attacker = null;
-
-        // Handle direct player damage
-        if (event.getDamager() instanceof Player) {
-            attacker = (Player) event.getDamager();
-        }
-        // Handle projectile damage
-        else if (event.getDamager() instanceof Projectile) {
-            Projectile projectile = (Projectile) event.getDamager();
-
-            // Check if the projectile was shot by a player
-            if (projectile.getShooter() instanceof Player) {
-                attacker = (Player) projectile.getShooter();
-
-                plugin.getLogger().info("Projectile hit: " + attacker.getName() + " hit " + victim.getName() +
-                        " with " + projectile.getType());
-            }
+    /**
+     * Damage pipeline step (see DamageDispatcher): blocks PvP in safe zones and between allies,
+     * otherwise tags both players. Runs before any other damage handler.
+     */
+    public void handleDamage(DamageContext context) {
+        if (!context.isPlayerVsPlayer()) {
+            return; // No player attacker, or self-damage - no combat consequences
         }
 
-        // If no player attacker found, let the damage through without combat consequences
-        if (attacker == null) {
-            return;
-        }
+        Player attacker = context.getAttackerPlayer();
+        Player victim = context.getVictimPlayer();
+        String damageType = context.isProjectile() ? "projectile" : "direct";
 
-        // Don't process self-damage
-        if (attacker.equals(victim)) {
-            return;
+        if (context.isProjectile()) {
+            journal.log(CombatJournal.Category.PROJECTILE, CombatJournal.Severity.INFO,
+                    "{} hit {} with {}", attacker.getName(), victim.getName(), context.getProjectile().getType());
         }
 
         // Check safe zones FIRST - highest priority protection
-        boolean attackerInSafeZone = isInSafeZone(attacker.getLocation());
-        boolean victimInSafeZone = isInSafeZone(victim.getLocation());
-
-        if (attackerInSafeZone || victimInSafeZone) {
+        if (context.isInSafeZone()) {
             // Cancel the damage
-            event.setCancelled(true);
+            context.cancel();
 
-            String victimZone = getSafeZoneName(victim.getLocation());
-            String attackerZone = getSafeZoneName(attacker.getLocation());
-            String zoneName = victimZone != null ? victimZone : attackerZone;
+            SafeZone attackerZone = context.getAttackerSafeZone();
+            SafeZone victimZone = context.getVictimSafeZone();
+            String zoneName = victimZone != null ? victimZone.getName() : attackerZone.getName();
 
             // Send appropriate messages to both players
-            if (attackerInSafeZone) {
+            if (attackerZone != null) {
                 attacker.sendMessage(Component.text("🛡 You cannot attack from within a safe zone!")
                         .color(NamedTextColor.YELLOW));
             }
-            if (victimInSafeZone) {
+            if (victimZone != null) {
                 attacker.sendMessage(Component.text("🛡 You cannot attack players in safe zones!")
                         .color(NamedTextColor.YELLOW));
             }
 
-            plugin.getLogger().info("PvP blocked in safe zone (" + zoneName + "): " +
-                    attacker.getName() + " vs " + victim.getName() +
-                    (event.getDamager() instanceof Projectile ? " (projectile)" : " (direct)"));
+            journal.log(CombatJournal.Category.SAFE_ZONE, CombatJournal.Severity.INFO,
+                    "PvP blocked in {}: {} vs {}", zoneName, attacker.getName(), victim.getName());
             return;
         }
 
         // Check if players are trusted allies
-        if (trustManager != null && trustManager.isTrusted(victim, attacker)) {
+        if (context.isTrusted()) {
             // Players are allies - cancel damage and don't trigger combat timer
-            event.setCancelled(true);
+            context.cancel();
 
             // Send messages to both players
-            String weaponType = event.getDamager() instanceof Projectile ? "projectile" : "attack";
+            String weaponType = context.isProjectile() ? "projectile" : "attack";
             attacker.sendMessage(Component.text("⚠ Your " + weaponType + " cannot harm your ally " + victim.getName() + "!")
                     .color(NamedTextColor.YELLOW));
             victim.sendMessage(Component.text("⚠ Your ally " + attacker.getName() + " tried to hit you with " + weaponType + " but damage was blocked!")
                     .color(NamedTextColor.YELLOW));
 
-            plugin.getLogger().info("PvP damage blocked between allies: " + attacker.getName() + " and " + victim.getName() +
-                    (event.getDamager() instanceof Projectile ? " (projectile)" : " (direct)"));
+            journal.log(CombatJournal.Category.ALLY, CombatJournal.Severity.INFO,
+                    "Damage blocked between allies {} and {} ({})", attacker.getName(), victim.getName(), weaponType);
             return;
         }
 
@@ -250,8 +275,8 @@ public class CombatTimer implements Listener {
         putInCombat(victim, attacker);
         putInCombat(attacker, victim);
 
-        String damageType = event.getDamager() instanceof Projectile ? " (projectile)" : " (direct)";
-        plugin.getLogger().info("Combat initiated between " + attacker.getName() + " and " + victim.getName() + damageType);
+        journal.log(CombatJournal.Category.PVP, CombatJournal.Severity.INFO,
+                "{} hit {} ({})", attacker.getName(), victim.getName(), damageType);
     }
 
     @EventHandler
@@ -267,6 +292,8 @@ public class CombatTimer implements Listener {
             // Remove the dead player from combat immediately
             combatPlayers.remove(deadPlayer.getUniqueId());
             combatCause.remove(deadPlayer.getUniqueId());
+            List<Player> endedCombat = new ArrayList<>();
+            endedCombat.add(deadPlayer);
 
             // If we found the killer and they're online and in combat, remove them too
             if (killer != null && killer.isOnline() && isInCombat(killer)) {
@@ -279,8 +306,10 @@ public class CombatTimer implements Listener {
 
                     killer.sendMessage(Component.text("✓ You are no longer in combat (opponent died).")
                             .color(NamedTextColor.GREEN));
+                    endedCombat.add(killer);
 
-                    plugin.getLogger().info("Removed " + killer.getName() + " from combat (killed " + deadPlayer.getName() + ")");
+                    journal.log(CombatJournal.Category.COMBAT_TAG, CombatJournal.Severity.INFO,
+                            "{} left combat (killed {})", killer.getName(), deadPlayer.getName());
                 }
             }
 
@@ -294,19 +323,27 @@ public class CombatTimer implements Listener {
 
                     if (otherPlayer != null && otherPlayer.isOnline()) {
                         // Remove the other player from combat since their opponent died
-                        combatPlayers.remove(otherPlayerUUID);
+                        if (combatPlayers.remove(otherPlayerUUID) != null) {
+                            endedCombat.add(otherPlayer);
+                        }
                         otherPlayer.sendMessage(Component.text("✓ You are no longer in combat (opponent died).")
                                 .color(NamedTextColor.GREEN));
 
-                        plugin.getLogger().info("Removed " + otherPlayer.getName() + " from combat (opponent " + deadPlayer.getName() + " died)");
+                        journal.log(CombatJournal.Category.COMBAT_TAG, CombatJournal.Severity.INFO,
+                                "{} left combat (opponent {} died)", otherPlayer.getName(), deadPlayer.getName());
                     }
                     return true; // Remove this entry
                 }
                 return false;
             });
 
-            plugin.getLogger().info("Player death ended combat for " + deadPlayer.getName() +
-                    (killer != null ? " (killed by " + killer.getName() + ")" : ""));
+            journal.log(CombatJournal.Category.PVP, CombatJournal.Severity.INFO,
+                    "{} died in combat (killer: {})", deadPlayer.getName(), killer != null ? killer.getName() : "unknown");
+
+            // Fired after all state is cleared, so listeners can safely call back into the combat timer
+            for (Player ended : endedCombat) {
+                fireCombatExpire(ended, PlayerCombatExpireEvent.Reason.DEATH);
+            }
         }
     }
 
@@ -336,10 +373,12 @@ public class CombatTimer implements Listener {
                         .color(NamedTextColor.RED);
                 Bukkit.broadcast(deathMessage);
 
-                plugin.getLogger().info(player.getName() + " was killed for combat logging");
+                journal.log(CombatJournal.Category.COMBAT_LOG, CombatJournal.Severity.WARN,
+                        "{} was killed for combat logging", player.getName());
             } else {
                 // Player was in combat due to ally interaction - don't kill them
-                plugin.getLogger().info(player.getName() + " logged off in ally-caused combat - no penalty applied");
+                journal.log(CombatJournal.Category.COMBAT_LOG, CombatJournal.Severity.INFO,
+                        "{} logged off in ally-caused combat, no penalty", player.getName());
 
                 // Optionally notify the ally that their friend logged off
                 Player ally = Bukkit.getPlayer(combatCauseUUID);
@@ -351,28 +390,139 @@ public class CombatTimer implements Listener {
         }
 
         // Clean up tracking data
-        combatPlayers.remove(player.getUniqueId());
+        boolean wasInCombat = combatPlayers.remove(player.getUniqueId()) != null;
         combatCause.remove(player.getUniqueId());
+        currentSafeZones.remove(player.getUniqueId());
 
         // Also clean up if this player was the cause of someone else's combat
         combatCause.values().removeIf(causeUUID -> causeUUID.equals(player.getUniqueId()));
+
+        if (wasInCombat) {
+            fireCombatExpire(player, PlayerCombatExpireEvent.Reason.QUIT);
+        }
+    }
+
+    // ============ SAFE ZONE MEMBERSHIP CACHE ============
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+
+        // Looking around or moving within the same block can't change zone membership
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY() && from.getBlockZ() == to.getBlockZ()) {
+            return;
+        }
+
+        updateSafeZoneMembership(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        updateSafeZoneMembership(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+
+        if (from.getBlockX() == to.getBlockX() && from.getBlockY() == to.getBlockY() && from.getBlockZ() == to.getBlockZ()) {
+            return;
+        }
+
+        // Passengers don't fire PlayerMoveEvent
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player player) {
+                updateSafeZoneMembership(player, to);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        updateSafeZoneMembership(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        updateSafeZoneMembership(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        updateSafeZoneMembership(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    private void updateSafeZoneMembership(Player player, Location location) {
+        SafeZone zone = getSafeZone(location);
+        if (zone != null) {
+            currentSafeZones.put(player.getUniqueId(), zone);
+        } else {
+            currentSafeZones.remove(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Recompute every online player's zone (after zones are added or removed)
+     */
+    private void refreshAllSafeZoneMemberships() {
+        currentSafeZones.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            updateSafeZoneMembership(player, player.getLocation());
+        }
+    }
+
+    /**
+     * The safe zone a player is currently standing in, or null. O(1), no location lookup.
+     */
+    public SafeZone getCurrentSafeZone(Player player) {
+        return player != null ? currentSafeZones.get(player.getUniqueId()) : null;
+    }
+
+    /**
+     * Check if a player is currently standing in a safe zone
+     */
+    public boolean isInSafeZone(Player player) {
+        return getCurrentSafeZone(player) != null;
     }
 
     // ============ ENHANCED SAFE ZONE METHODS ============
 
     /**
-     * Load safe zones from configuration file (now supports cuboid format)
+     * Load safe zones from configuration file.
+     * Current format is a "zones" list; the old one-zone-per-world sections (cuboid or circular) are converted.
      */
     private void loadSafeZonesFromFile() {
         try {
             if (safeZoneFile.exists()) {
                 int loadedZones = 0;
+                boolean converted = false;
+
+                for (Map<?, ?> zoneMap : safeZoneConfig.getMapList("zones")) {
+                    try {
+                        String worldName = String.valueOf(zoneMap.get("world"));
+                        String name = zoneMap.containsKey("name") ? String.valueOf(zoneMap.get("name")) : "Safe Zone";
+                        String createdBy = zoneMap.containsKey("createdBy") ? String.valueOf(zoneMap.get("createdBy")) : "System";
+
+                        indexSafeZone(new SafeZone(worldName,
+                                toInt(zoneMap.get("minX")), toInt(zoneMap.get("minY")), toInt(zoneMap.get("minZ")),
+                                toInt(zoneMap.get("maxX")), toInt(zoneMap.get("maxY")), toInt(zoneMap.get("maxZ")),
+                                name, createdBy));
+                        loadedZones++;
+                    } catch (Exception e) {
+                        plugin.getLogger().warning("Failed to load safe zone " + zoneMap.get("name") + ": " + e.getMessage());
+                    }
+                }
 
+                // Old format: one section per world
                 for (String worldName : safeZoneConfig.getKeys(false)) {
+                    if (worldName.equals("zones")) continue;
+
                     var zoneSection = safeZoneConfig.getConfigurationSection(worldName);
                     if (zoneSection != null) {
                         try {
-                            // Try new cuboid format first
+                            // Try cuboid format first
                             if (zoneSection.contains("minX")) {
                                 int minX = zoneSection.getInt("minX");
                                 int minY = zoneSection.getInt("minY");
@@ -383,11 +533,11 @@ public class CombatTimer implements Listener {
                                 String name = zoneSection.getString("name", "Safe Zone");
                                 String createdBy = zoneSection.getString("createdBy", "System");
 
-                                SafeZone zone = new SafeZone(minX, minY, minZ, maxX, maxY, maxZ, name, createdBy);
-                                safeZones.put(worldName, zone);
+                                indexSafeZone(new SafeZone(worldName, minX, minY, minZ, maxX, maxY, maxZ, name, createdBy));
                                 loadedZones++;
+                                converted = true;
 
-                                plugin.getLogger().info("Loaded cuboid safe zone: " + name + " in " + worldName);
+                                plugin.getLogger().info("Converted per-world safe zone: " + name + " in " + worldName);
                             }
                             // Fallback to old circular format and convert
                             else if (zoneSection.contains("centerX")) {
@@ -398,9 +548,9 @@ public class CombatTimer implements Listener {
                                 String createdBy = zoneSection.getString("createdBy", "System");
 
                                 // Convert circular to cuboid (full height)
-                                SafeZone zone = new SafeZone(centerX, centerZ, radius, name, createdBy);
-                                safeZones.put(worldName, zone);
+                                indexSafeZone(new SafeZone(worldName, centerX, centerZ, radius, name, createdBy));
                                 loadedZones++;
+                                converted = true;
 
                                 plugin.getLogger().info("Converted circular safe zone to cuboid: " + name + " in " + worldName);
                             }
@@ -413,8 +563,8 @@ public class CombatTimer implements Listener {
 
                 plugin.getLogger().info("Loaded " + loadedZones + " safe zones from configuration file");
 
-                // Save back to file to convert any old circular zones to new format
-                if (loadedZones > 0) {
+                // Save back to file to convert any old zones to the list format
+                if (converted) {
                     saveSafeZonesToFile();
                 }
             } else {
@@ -428,8 +578,13 @@ public class CombatTimer implements Listener {
         }
     }
 
+    private static int toInt(Object value) {
+        if (value instanceof Number number) return number.intValue();
+        return Integer.parseInt(String.valueOf(value));
+    }
+
     /**
-     * Save safe zones to configuration file (cuboid format)
+     * Save safe zones to configuration file (list format)
      */
     private void saveSafeZonesToFile() {
         try {
@@ -438,24 +593,25 @@ public class CombatTimer implements Listener {
                 safeZoneConfig.set(key, null);
             }
 
-            // Save current safe zones in new cuboid format
-            for (Map.Entry<String, SafeZone> entry : safeZones.entrySet()) {
-                String worldName = entry.getKey();
-                SafeZone zone = entry.getValue();
-
-                safeZoneConfig.set(worldName + ".minX", zone.getMinX());
-                safeZoneConfig.set(worldName + ".minY", zone.getMinY());
-                safeZoneConfig.set(worldName + ".minZ", zone.getMinZ());
-                safeZoneConfig.set(worldName + ".maxX", zone.getMaxX());
-                safeZoneConfig.set(worldName + ".maxY", zone.getMaxY());
-                safeZoneConfig.set(worldName + ".maxZ", zone.getMaxZ());
-                safeZoneConfig.set(worldName + ".name", zone.getName());
-                safeZoneConfig.set(worldName + ".createdBy", zone.getCreatedBy());
-                safeZoneConfig.set(worldName + ".createdTime", zone.getCreatedTime());
+            List<Map<String, Object>> zoneList = new ArrayList<>();
+            for (SafeZone zone : getSafeZones()) {
+                Map<String, Object> zoneMap = new LinkedHashMap<>();
+                zoneMap.put("name", zone.getName());
+                zoneMap.put("world", zone.getWorldName());
+                zoneMap.put("minX", zone.getMinX());
+                zoneMap.put("minY", zone.getMinY());
+                zoneMap.put("minZ", zone.getMinZ());
+                zoneMap.put("maxX", zone.getMaxX());
+                zoneMap.put("maxY", zone.getMaxY());
+                zoneMap.put("maxZ", zone.getMaxZ());
+                zoneMap.put("createdBy", zone.getCreatedBy());
+                zoneMap.put("createdTime", zone.getCreatedTime());
+                zoneList.add(zoneMap);
             }
+            safeZoneConfig.set("zones", zoneList);
 
             safeZoneConfig.save(safeZoneFile);
-            plugin.getLogger().info("Saved " + safeZones.size() + " safe zones to configuration file");
+            plugin.getLogger().info("Saved " + zoneList.size() + " safe zones to configuration file");
 
         } catch (IOException e) {
             plugin.getLogger().severe("Failed to save safe zones: " + e.getMessage());
@@ -467,18 +623,23 @@ public class CombatTimer implements Listener {
      */
     private void initializeDefaultSafeZones() {
         // Default spawn protection cuboid (100x100 area from Y -64 to 320)
-        safeZones.put("world", new SafeZone(-50, -64, -50, 50, 320, 50, "Spawn Area", "System"));
+        indexSafeZone(new SafeZone("world", -50, -64, -50, 50, 320, 50, "Spawn Area", "System"));
         plugin.getLogger().info("Created default spawn safe zone: 100x384x100 cuboid at spawn");
     }
 
+    private void indexSafeZone(SafeZone zone) {
+        safeZoneIndexes.computeIfAbsent(zone.getWorldName(), world -> new SafeZoneIndex()).add(zone);
+    }
+
     /**
      * Add a cuboid safe zone using coordinates
      */
     public void addSafeZone(String worldName, int minX, int minY, int minZ,
                             int maxX, int maxY, int maxZ, String name, String createdBy) {
-        SafeZone zone = new SafeZone(minX, minY, minZ, maxX, maxY, maxZ, name, createdBy);
-        safeZones.put(worldName, zone);
+        SafeZone zone = new SafeZone(worldName, minX, minY, minZ, maxX, maxY, maxZ, name, createdBy);
+        indexSafeZone(zone);
         saveSafeZonesToFile();
+        refreshAllSafeZoneMemberships();
 
         plugin.getLogger().info("Added cuboid safe zone: " + name + " in " + worldName +
                 " [" + zone.getMinX() + "," + zone.getMinY() + "," + zone.getMinZ() +
@@ -511,42 +672,37 @@ public class CombatTimer implements Listener {
     }
 
     /**
-     * Remove a safe zone from a world
+     * Remove a safe zone by name (case-insensitive). Returns the removed zone or null.
      */
-    public void removeSafeZone(String worldName) {
-        SafeZone removed = safeZones.remove(worldName);
-        if (removed != null) {
-            saveSafeZonesToFile();
-            plugin.getLogger().info("Removed safe zone: " + removed.getName() + " from " + worldName);
+    public SafeZone removeSafeZone(String zoneName) {
+        SafeZone zone = getSafeZoneByName(zoneName);
+        if (zone == null) return null;
+
+        SafeZoneIndex index = safeZoneIndexes.get(zone.getWorldName());
+        index.remove(zone);
+        if (index.isEmpty()) {
+            safeZoneIndexes.remove(zone.getWorldName());
         }
+
+        saveSafeZonesToFile();
+        refreshAllSafeZoneMemberships();
+        plugin.getLogger().info("Removed safe zone: " + zone.getName() + " from " + zone.getWorldName());
+        return zone;
     }
 
     /**
      * Check if a location is in a safe zone (now cuboid-based)
      */
     public boolean isInSafeZone(Location location) {
-        if (location == null || location.getWorld() == null) return false;
-
-        String worldName = location.getWorld().getName();
-        SafeZone safeZone = safeZones.get(worldName);
-
-        return safeZone != null && safeZone.isInside(location);
+        return getSafeZone(location) != null;
     }
 
     /**
      * Get the name of the safe zone at a location (null if not in safe zone)
      */
     public String getSafeZoneName(Location location) {
-        if (location == null || location.getWorld() == null) return null;
-
-        String worldName = location.getWorld().getName();
-        SafeZone safeZone = safeZones.get(worldName);
-
-        if (safeZone != null && safeZone.isInside(location)) {
-            return safeZone.getName();
-        }
-
-        return null;
+        SafeZone safeZone = getSafeZone(location);
+        return safeZone != null ? safeZone.getName() : null;
     }
 
     /**
@@ -555,28 +711,45 @@ public class CombatTimer implements Listener {
     public SafeZone getSafeZone(Location location) {
         if (location == null || location.getWorld() == null) return null;
 
-        String worldName = location.getWorld().getName();
-        SafeZone safeZone = safeZones.get(worldName);
+        SafeZoneIndex index = safeZoneIndexes.get(location.getWorld().getName());
+        if (index == null) return null;
 
-        if (safeZone != null && safeZone.isInside(location)) {
-            return safeZone;
-        }
+        return index.find(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
 
+    /**
+     * Get a safe zone by name (case-insensitive), or null
+     */
+    public SafeZone getSafeZoneByName(String zoneName) {
+        if (zoneName == null) return null;
+
+        for (SafeZoneIndex index : safeZoneIndexes.values()) {
+            for (SafeZone zone : index.getZones()) {
+                if (zone.getName().equalsIgnoreCase(zoneName)) {
+                    return zone;
+                }
+            }
+        }
         return null;
     }
 
     /**
-     * Get safe zone for a specific world
+     * Get all safe zones in a world
      */
-    public SafeZone getSafeZoneForWorld(String worldName) {
-        return safeZones.get(worldName);
+    public List<SafeZone> getSafeZonesInWorld(String worldName) {
+        SafeZoneIndex index = safeZoneIndexes.get(worldName);
+        return index != null ? index.getZones() : Collections.emptyList();
     }
 
     /**
      * Get all safe zones (for admin commands)
      */
-    public Map<String, SafeZone> getSafeZones() {
-        return new HashMap<>(safeZones);
+    public List<SafeZone> getSafeZones() {
+        List<SafeZone> zones = new ArrayList<>();
+        for (SafeZoneIndex index : safeZoneIndexes.values()) {
+            zones.addAll(index.getZones());
+        }
+        return zones;
     }
 
     /**
@@ -585,12 +758,10 @@ public class CombatTimer implements Listener {
     public double getDistanceToNearestSafeZone(Location location) {
         if (location == null || location.getWorld() == null) return Double.MAX_VALUE;
 
-        String worldName = location.getWorld().getName();
-        SafeZone safeZone = safeZones.get(worldName);
+        SafeZoneIndex index = safeZoneIndexes.get(location.getWorld().getName());
+        if (index == null) return Double.MAX_VALUE;
 
-        if (safeZone == null) return Double.MAX_VALUE;
-
-        return safeZone.getDistanceToEdge(location);
+        return index.nearestDistance(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
     /**
@@ -612,13 +783,16 @@ public class CombatTimer implements Listener {
         }
 
         // Check if player is in a safe zone - don't put them in combat if they are
-        if (isInSafeZone(player.getLocation())) {
-            plugin.getLogger().info("Prevented combat timer for " + player.getName() + " (in safe zone)");
+        if (isInSafeZone(player)) {
+            journal.log(CombatJournal.Category.SAFE_ZONE, CombatJournal.Severity.DEBUG,
+                    "Combat tag skipped for {} (in safe zone)", player.getName());
             return;
         }
 
         boolean wasInCombat = isInCombat(player);
-        combatPlayers.put(player.getUniqueId(), System.currentTimeMillis());
+        long endTime = System.currentTimeMillis() + COMBAT_TIME;
+        combatPlayers.put(player.getUniqueId(), endTime);
+        expiryQueue.add(new CombatExpiry(endTime, player.getUniqueId()));
 
         // Track who caused this player to enter combat
         if (cause != null) {
@@ -628,32 +802,17 @@ public class CombatTimer implements Listener {
         if (!wasInCombat) {
             player.sendMessage(Component.text("⚔ You are now in combat for 15 seconds!")
                     .color(NamedTextColor.RED));
-        } else {
-
         }
+
+        Bukkit.getPluginManager().callEvent(
+                new PlayerCombatTagEvent(player, cause, !wasInCombat, isCombatCausedByAlly(player)));
     }
 
+    /**
+     * Check if a player is in combat. Read only - expiry and the exit message are handled by the expiry task.
+     */
     public boolean isInCombat(Player player) {
-        if (player == null) {
-            return false;
-        }
-
-        Long combatTime = combatPlayers.get(player.getUniqueId());
-        if (combatTime == null) {
-            return false;
-        }
-
-        if (System.currentTimeMillis() - combatTime > COMBAT_TIME) {
-            combatPlayers.remove(player.getUniqueId());
-            combatCause.remove(player.getUniqueId()); // Clean up cause tracking
-            if (player.isOnline()) {
-                player.sendMessage(Component.text("✓ You are no longer in combat.")
-                        .color(NamedTextColor.GREEN));
-            }
-            return false;
-        }
-
-        return true;
+        return player != null && combatPlayers.containsKey(player.getUniqueId());
     }
 
     public long getRemainingCombatTime(Player player) {
@@ -661,13 +820,12 @@ public class CombatTimer implements Listener {
             return 0;
         }
 
-        Long combatTime = combatPlayers.get(player.getUniqueId());
-        if (combatTime == null) {
+        Long endTime = combatPlayers.get(player.getUniqueId());
+        if (endTime == null) {
             return 0;
         }
 
-        long remaining = COMBAT_TIME - (System.currentTimeMillis() - combatTime);
-        return Math.max(0, remaining);
+        return Math.max(0, endTime - System.currentTimeMillis());
     }
 
     /**
@@ -693,6 +851,7 @@ public class CombatTimer implements Listener {
                 player.sendMessage(Component.text("✓ You have been removed from combat.")
                         .color(NamedTextColor.GREEN));
             }
+            fireCombatExpire(player, PlayerCombatExpireEvent.Reason.REMOVED);
         }
     }
 
@@ -726,7 +885,7 @@ public class CombatTimer implements Listener {
         }
 
         // Check safe zones (now cuboid-based)
-        if (isInSafeZone(attacker.getLocation()) || isInSafeZone(victim.getLocation())) {
+        if (isInSafeZone(attacker) || isInSafeZone(victim)) {
             return false;
         }
 
@@ -769,7 +928,7 @@ public class CombatTimer implements Listener {
         }
 
         // Show safe zone status with enhanced info
-        SafeZone currentZone = getSafeZone(player.getLocation());
+        SafeZone currentZone = getCurrentSafeZone(player);
         if (currentZone != null) {
             player.sendMessage(Component.text("🏠 LOCATION: " + currentZone.getName() + " (Safe Zone)")
                     .color(NamedTextColor.GREEN));
@@ -792,26 +951,44 @@ public class CombatTimer implements Listener {
 
     // ============ CLEANUP AND UTILITY METHODS ============
 
-    private void startCleanupTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Clean up expired combat timers
-                combatPlayers.entrySet().removeIf(entry -> {
-                    if (System.currentTimeMillis() - entry.getValue() > COMBAT_TIME) {
-                        Player player = Bukkit.getPlayer(entry.getKey());
-                        if (player != null && player.isOnline()) {
-                            player.sendMessage(Component.text("✓ You are no longer in combat.")
-                                    .color(NamedTextColor.GREEN));
-                        }
-                        // Also clean up cause tracking for expired combat timers
-                        combatCause.remove(entry.getKey());
-                        return true;
-                    }
-                    return false;
-                });
+    private void startExpiryTask() {
+        Bukkit.getScheduler().runTaskTimer(plugin, this::drainExpiredCombat, 1L, 1L);
+    }
+
+    /**
+     * End combat for every player whose timer ran out. Only looks at the head of the queue,
+     * so a tick with nothing due costs a single peek.
+     */
+    private void drainExpiredCombat() {
+        CombatExpiry head = expiryQueue.peek();
+        if (head == null) {
+            return;
+        }
+
+        long currentTime = System.currentTimeMillis();
+        while (head != null && head.endTime <= currentTime) {
+            expiryQueue.poll();
+
+            // Skip entries superseded by a re-tag, or for players already removed (death, quit, admin)
+            Long endTime = combatPlayers.get(head.playerId);
+            if (endTime != null && endTime == head.endTime) {
+                combatPlayers.remove(head.playerId);
+                combatCause.remove(head.playerId); // Clean up cause tracking
+
+                Player player = Bukkit.getPlayer(head.playerId);
+                if (player != null && player.isOnline()) {
+                    player.sendMessage(Component.text("✓ You are no longer in combat.")
+                            .color(NamedTextColor.GREEN));
+                    fireCombatExpire(player, PlayerCombatExpireEvent.Reason.EXPIRED);
+                }
             }
-        }.runTaskTimer(plugin, 20L, 20L); // Run every second
+
+            head = expiryQueue.peek();
+        }
+    }
+
+    private void fireCombatExpire(Player player, PlayerCombatExpireEvent.Reason reason) {
+        Bukkit.getPluginManager().callEvent(new PlayerCombatExpireEvent(player, reason));
     }
 
     /**
@@ -830,7 +1007,7 @@ public class CombatTimer implements Listener {
     }
 
     /**
-     * Get all players currently in combat (for admin purposes)
+     * Get all players currently in combat with the time their combat ends (for admin purposes)
      */
     public Map<UUID, Long> getCombatPlayers() {
         return new HashMap<>(combatPlayers);
@@ -869,9 +1046,16 @@ public class CombatTimer implements Listener {
             player.sendMessage(Component.text("⚔ You have been put in combat: " + reason)
                     .color(NamedTextColor.RED));
         }
-        plugin.getLogger().info("Forced " + player.getName() + " into combat" +
-                (cause != null ? " by " + cause.getName() : "") +
-                (reason != null ? " (" + reason + ")" : ""));
+        journal.log(CombatJournal.Category.ADMIN, CombatJournal.Severity.INFO,
+                "Forced {} into combat (cause: {}, reason: {})", player.getName(),
+                cause != null ? cause.getName() : "none", reason);
+    }
+
+    /**
+     * Journal that combat events are recorded to (also used by ElytraDisabling and /combat log)
+     */
+    public CombatJournal getCombatJournal() {
+        return journal;
     }
 
     /**
@@ -1,16 +1,162 @@
 package rc.maces.managers;
 
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+import rc.maces.events.AbilityReadyEvent;
+
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.UUID;
 
 /**
- * Fixed CooldownManager with proper cooldown handling
+ * Cooldown store keyed by player and ability ordinal.
+ * Abilities are registered once (see AbilityManager) and get a small integer id,
+ * each player then has a long[] of expiry times indexed by that id.
+ * The String-keyed methods are kept as adapters for commands and older callers.
+ * Expiries are also pushed onto a min-heap that is drained once per tick, firing
+ * an AbilityReadyEvent for each cooldown that ran out.
  */
 public class CooldownManager {
 
-    private final Map<String, Long> cooldowns = new ConcurrentHashMap<>();
+    private final Map<String, Integer> abilityIds = new ConcurrentHashMap<>();
+    private volatile String[] abilityNames = new String[0];
+    private final Map<UUID, long[]> cooldowns = new ConcurrentHashMap<>();
+
+    // Ordered by expiry time. Entries whose expiry no longer matches the array were
+    // overwritten or cleared and are dropped when they reach the top.
+    private final PriorityQueue<Expiry> expiryQueue = new PriorityQueue<>();
+
+    private static class Expiry implements Comparable<Expiry> {
+        final long expireAt;
+        final UUID playerId;
+        final int abilityId;
+
+        Expiry(long expireAt, UUID playerId, int abilityId) {
+            this.expireAt = expireAt;
+            this.playerId = playerId;
+            this.abilityId = abilityId;
+        }
+
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(expireAt, other.expireAt);
+        }
+    }
+
+    /**
+     * Start draining expired cooldowns every tick
+     */
+    public void startExpiryTask(JavaPlugin plugin) {
+        Bukkit.getScheduler().runTaskTimer(plugin, this::drainExpired, 1L, 1L);
+    }
+
+    // ============ ABILITY REGISTRATION ============
+
+    /**
+     * Register an ability key and return its ordinal. Registering the same key twice returns the same id.
+     */
+    public synchronized int registerAbility(String ability) {
+        String key = ability.toLowerCase();
+        Integer existing = abilityIds.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = abilityNames.length;
+        String[] names = Arrays.copyOf(abilityNames, id + 1);
+        names[id] = key;
+        abilityNames = names;
+        abilityIds.put(key, id);
+        return id;
+    }
+
+    /**
+     * Get the ordinal of a registered ability, or -1 if it was never registered
+     */
+    public int getAbilityId(String ability) {
+        if (ability == null || ability.isEmpty()) {
+            return -1;
+        }
+
+        Integer id = abilityIds.get(ability);
+        if (id == null) {
+            id = abilityIds.get(ability.toLowerCase());
+        }
+        return id != null ? id : -1;
+    }
+
+    public String getAbilityName(int abilityId) {
+        String[] names = abilityNames;
+        return abilityId >= 0 && abilityId < names.length ? names[abilityId] : null;
+    }
+
+    public int getRegisteredAbilityCount() {
+        return abilityNames.length;
+    }
+
+    // ============ ORDINAL API ============
+
+    /**
+     * Set a cooldown for a specific player and ability ordinal
+     */
+    public void setCooldown(UUID playerId, int abilityId, long cooldownMs) {
+        if (playerId == null || abilityId < 0) {
+            return;
+        }
+
+        long[] expiries = cooldowns.get(playerId);
+        if (expiries == null || expiries.length <= abilityId) {
+            expiries = expiries == null
+                    ? new long[Math.max(abilityNames.length, abilityId + 1)]
+                    : Arrays.copyOf(expiries, Math.max(abilityNames.length, abilityId + 1));
+            cooldowns.put(playerId, expiries);
+        }
+
+        long expireAt = System.currentTimeMillis() + cooldownMs;
+        expiries[abilityId] = expireAt;
+
+        synchronized (expiryQueue) {
+            expiryQueue.add(new Expiry(expireAt, playerId, abilityId));
+        }
+    }
+
+    public boolean isOnCooldown(UUID playerId, int abilityId) {
+        return getRemainingCooldown(playerId, abilityId) > 0;
+    }
+
+    /**
+     * Get remaining cooldown time in milliseconds, 0 when ready
+     */
+    public long getRemainingCooldown(UUID playerId, int abilityId) {
+        if (playerId == null || abilityId < 0) {
+            return 0;
+        }
+
+        long[] expiries = cooldowns.get(playerId);
+        if (expiries == null || abilityId >= expiries.length) {
+            return 0;
+        }
+
+        long remaining = expiries[abilityId] - System.currentTimeMillis();
+        return remaining > 0 ? remaining : 0;
+    }
+
+    public void clearCooldown(UUID playerId, int abilityId) {
+        if (playerId == null || abilityId < 0) {
+            return;
+        }
+
+        long[] expiries = cooldowns.get(playerId);
+        if (expiries != null && abilityId < expiries.length) {
+            expiries[abilityId] = 0;
+        }
+    }
+
+    // ============ STRING ADAPTERS ============
 
     /**
      * Set a cooldown for a specific player and ability
@@ -20,8 +166,11 @@ public class CooldownManager {
             return;
         }
 
-        String key = createKey(playerId, ability);
-        cooldowns.put(key, System.currentTimeMillis() + cooldownMs);
+        int abilityId = getAbilityId(ability);
+        if (abilityId < 0) {
+            abilityId = registerAbility(ability);
+        }
+        setCooldown(playerId, abilityId, cooldownMs);
     }
 
     /**
@@ -36,23 +185,7 @@ public class CooldownManager {
      * Check if a player has an active cooldown for an ability
      */
     public boolean isOnCooldown(UUID playerId, String ability) {
-        if (playerId == null || ability == null || ability.isEmpty()) {
-            return false;
-        }
-
-        String key = createKey(playerId, ability);
-        Long expireTime = cooldowns.get(key);
-
-        if (expireTime == null) {
-            return false;
-        }
-
-        if (System.currentTimeMillis() >= expireTime) {
-            cooldowns.remove(key);
-            return false;
-        }
-
-        return true;
+        return isOnCooldown(playerId, getAbilityId(ability));
     }
 
     /**
@@ -67,24 +200,7 @@ public class CooldownManager {
      * Get remaining cooldown time in milliseconds
      */
     public long getRemainingCooldown(UUID playerId, String ability) {
-        if (playerId == null || ability == null || ability.isEmpty()) {
-            return 0;
-        }
-
-        String key = createKey(playerId, ability);
-        Long expireTime = cooldowns.get(key);
-
-        if (expireTime == null) {
-            return 0;
-        }
-
-        long remaining = expireTime - System.currentTimeMillis();
-        if (remaining <= 0) {
-            cooldowns.remove(key);
-            return 0;
-        }
-
-        return remaining;
+        return getRemainingCooldown(playerId, getAbilityId(ability));
     }
 
     /**
@@ -115,12 +231,7 @@ public class CooldownManager {
      * Clear a specific cooldown
      */
     public void clearCooldown(UUID playerId, String ability) {
-        if (playerId == null || ability == null || ability.isEmpty()) {
-            return;
-        }
-
-        String key = createKey(playerId, ability);
-        cooldowns.remove(key);
+        clearCooldown(playerId, getAbilityId(ability));
     }
 
     /**
@@ -136,9 +247,7 @@ public class CooldownManager {
      */
     public void clearAllCooldowns(UUID playerId) {
         if (playerId == null) return;
-
-        String playerPrefix = playerId.toString() + ":";
-        cooldowns.entrySet().removeIf(entry -> entry.getKey().startsWith(playerPrefix));
+        cooldowns.remove(playerId);
     }
 
     /**
@@ -150,30 +259,76 @@ public class CooldownManager {
     }
 
     /**
-     * Clean up expired cooldowns (call periodically for memory management)
+     * Remove every cooldown that has run out and fire AbilityReadyEvent for online players.
+     * Only touches the expired entries at the top of the heap.
+     * Returns the number of cooldowns that expired.
      */
-    public int cleanupExpiredCooldowns() {
+    public int drainExpired() {
         long currentTime = System.currentTimeMillis();
-        int removed = 0;
-
-        var iterator = cooldowns.entrySet().iterator();
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (currentTime >= entry.getValue()) {
-                iterator.remove();
-                removed++;
+        int expired = 0;
+
+        while (true) {
+            Expiry expiry;
+            synchronized (expiryQueue) {
+                Expiry head = expiryQueue.peek();
+                if (head == null || head.expireAt > currentTime) {
+                    break;
+                }
+                expiry = expiryQueue.poll();
+            }
+
+            long[] expiries = cooldowns.get(expiry.playerId);
+            if (expiries == null || expiries[expiry.abilityId] != expiry.expireAt) {
+                continue; // Cleared or replaced by a newer cooldown
+            }
+
+            expiries[expiry.abilityId] = 0;
+            expired++;
+
+            if (allClear(expiries)) {
+                cooldowns.remove(expiry.playerId);
+            }
+
+            Player player = Bukkit.getPlayer(expiry.playerId);
+            if (player != null) {
+                Bukkit.getPluginManager().callEvent(
+                        new AbilityReadyEvent(player, getAbilityName(expiry.abilityId), expiry.abilityId));
             }
         }
 
-        return removed;
+        return expired;
+    }
+
+    private static boolean allClear(long[] expiries) {
+        for (long expiry : expiries) {
+            if (expiry != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Clean up expired cooldowns. Kept for older callers, expiry is handled by drainExpired().
+     */
+    public int cleanupExpiredCooldowns() {
+        return drainExpired();
     }
 
     /**
      * Get total number of active cooldowns
      */
     public int getActiveCooldownCount() {
-        cleanupExpiredCooldowns(); // Clean up expired ones first
-        return cooldowns.size();
+        long currentTime = System.currentTimeMillis();
+        int count = 0;
+
+        for (long[] expiries : cooldowns.values()) {
+            for (long expiry : expiries) {
+                if (expiry > currentTime) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
     }
 
     /**
@@ -184,17 +339,21 @@ public class CooldownManager {
     }
 
     /**
-     * Create a consistent key for the cooldown map
-     */
-    private String createKey(UUID playerId, String ability) {
-        return playerId.toString() + ":" + ability.toLowerCase();
-    }
-
-    /**
-     * Get all active cooldowns for debugging
+     * Get all active cooldowns for debugging, keyed as "uuid:ability"
      */
     public Map<String, Long> getActiveCooldowns() {
-        cleanupExpiredCooldowns();
-        return new ConcurrentHashMap<>(cooldowns);
+        long currentTime = System.currentTimeMillis();
+        Map<String, Long> active = new HashMap<>();
+
+        for (Map.Entry<UUID, long[]> entry : cooldowns.entrySet()) {
+            long[] expiries = entry.getValue();
+            for (int i = 0; i < expiries.length; i++) {
+                if (expiries[i] > currentTime) {
+                    active.put(entry.getKey() + ":" + getAbilityName(i), expiries[i]);
+                }
+            }
+        }
+
+        return active;
     }
-}
\ No newline at end of file
+}
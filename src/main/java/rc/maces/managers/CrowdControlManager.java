@@ -0,0 +1,416 @@
+package rc.maces.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlotGroup;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
+import org.bukkit.util.Vector;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Owns every crowd control state abilities put on entities (Vine Trap roots, Wind Struck slows...).
+ * All states advance in one repeating task: rooted entities are held at their anchor and every state
+ * is released when its time is up, so N controlled entities cost one task instead of a timer pair each.
+ * Entities are resolved with Bukkit.getEntity, so releasing one is a lookup rather than a world scan.
+ *
+ * Roots use transient attribute modifiers by default (movement, flying speed and jump strength zeroed,
+ * full knockback resistance): the client stops moving on its own, so there are no per-tick teleports,
+ * and transient modifiers are never saved, so a player who disconnects rooted comes back clean.
+ * They keep a leash in the tick loop, so anything the modifiers don't stop (ender pearls, riptide,
+ * water, pistons) is snapped back to the anchor, only on the ticks it actually happens. Gravity is left
+ * alone, an entity rooted mid-air falls and its anchor is lowered with it instead of being pulled back up.
+ * Entities without those attributes, or every entity when crowd-control.root-mode is TELEPORT,
+ * are held by teleporting them back to the anchor instead.
+ * Main thread only.
+ */
+public class CrowdControlManager {
+
+    public enum Kind {
+        ROOT, // Held in place, cannot walk or jump
+        SLOW  // Free to move but impaired (webs, slow falling...)
+    }
+
+    public enum RootMode {
+        ATTRIBUTES, // Transient attribute modifiers, teleport only as a fallback
+        TELEPORT;   // Always hold in place by teleporting back every tick
+
+        static RootMode fromConfig(String value) {
+            if (value != null) {
+                for (RootMode mode : values()) {
+                    if (mode.name().equalsIgnoreCase(value.trim())) {
+                        return mode;
+                    }
+                }
+            }
+            return ATTRIBUTES;
+        }
+    }
+
+    private static final double ROOT_LEASH_SQUARED = 0.3 * 0.3;
+    private static final Vector ZERO = new Vector();
+
+    private static final class State {
+        final UUID entityId;
+        final Kind kind;
+        final Location anchor;
+        final boolean attributeRoot; // Held by attribute modifiers rather than teleports
+        final long endTick;
+        final float originalWalkSpeed;
+        final float originalFlySpeed;
+        final PotionEffect effect;
+        final Consumer<LivingEntity> onRelease;
+
+        State(UUID entityId, Kind kind, Location anchor, boolean attributeRoot, long endTick,
+              float walkSpeed, float flySpeed, PotionEffect effect, Consumer<LivingEntity> onRelease) {
+            this.entityId = entityId;
+            this.kind = kind;
+            this.anchor = anchor;
+            this.attributeRoot = attributeRoot;
+            this.endTick = endTick;
+            this.originalWalkSpeed = walkSpeed;
+            this.originalFlySpeed = flySpeed;
+            this.effect = effect;
+            this.onRelease = onRelease;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final RootMode rootMode;
+    private final NamespacedKey rootSpeedKey;
+    private final NamespacedKey rootJumpKey;
+    private final NamespacedKey rootFlyKey;
+    private final NamespacedKey rootKnockbackKey;
+    private final Map<Kind, Map<UUID, State>> states = new EnumMap<>(Kind.class);
+    private final List<State> expired = new ArrayList<>();
+    private long currentTick = 0;
+    private int teleportHolds = 0; // Roots held by teleports, move listeners are only needed while > 0
+    private Consumer<Boolean> teleportHoldWatcher;
+
+    public CrowdControlManager(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.rootMode = RootMode.fromConfig(plugin.getConfig().getString("crowd-control.root-mode"));
+        this.rootSpeedKey = new NamespacedKey(plugin, "root_movement_speed");
+        this.rootJumpKey = new NamespacedKey(plugin, "root_jump_strength");
+        this.rootFlyKey = new NamespacedKey(plugin, "root_flying_speed");
+        this.rootKnockbackKey = new NamespacedKey(plugin, "root_knockback_resistance");
+        for (Kind kind : Kind.values()) {
+            states.put(kind, new HashMap<>());
+        }
+    }
+
+    /**
+     * Start the shared tick loop
+     */
+    public void start() {
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Called with true when the first teleport-held root starts and false when the last one ends
+     */
+    public void setTeleportHoldWatcher(Consumer<Boolean> watcher) {
+        this.teleportHoldWatcher = watcher;
+    }
+
+    // ============ APPLYING ============
+
+    /**
+     * Root an entity where it stands. Returns false if it is already rooted.
+     * onRelease runs once with the live entity when the root ends for any reason while it is still loaded.
+     */
+    public boolean root(LivingEntity entity, int durationTicks, Consumer<LivingEntity> onRelease) {
+        UUID entityId = entity.getUniqueId();
+        if (isRooted(entityId)) {
+            return false;
+        }
+
+        // Store original speeds (only for players)
+        float originalWalkSpeed = 0.2f; // Default walk speed
+        float originalFlySpeed = 0.1f; // Default fly speed
+
+        if (entity instanceof Player player) {
+            originalWalkSpeed = player.getWalkSpeed();
+            originalFlySpeed = player.getFlySpeed();
+            // Flight has no attribute for players, always zero it
+            player.setFlySpeed(0f);
+        }
+
+        boolean attributeRoot = rootMode == RootMode.ATTRIBUTES && applyRootModifiers(entity);
+        if (!attributeRoot) {
+            // Teleport fallback: zero walk speed and potion effects to immobilize all living entities
+            if (entity instanceof Player player) {
+                player.setWalkSpeed(0f);
+            }
+            entity.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, durationTicks, 255, false, false));
+            entity.addPotionEffect(new PotionEffect(PotionEffectType.JUMP_BOOST, durationTicks, -10, false, false));
+        }
+
+        entity.setVelocity(ZERO);
+        states.get(Kind.ROOT).put(entityId, new State(entityId, Kind.ROOT, entity.getLocation(), attributeRoot,
+                currentTick + durationTicks, originalWalkSpeed, originalFlySpeed, null, onRelease));
+
+        if (!attributeRoot && teleportHolds++ == 0 && teleportHoldWatcher != null) {
+            teleportHoldWatcher.accept(true);
+        }
+        return true;
+    }
+
+    /**
+     * Slow an entity with a potion effect that is removed again when the slow ends.
+     * A new slow replaces the previous one. Effects the entity got elsewhere are never removed.
+     */
+    public void slow(LivingEntity entity, PotionEffect effect) {
+        UUID entityId = entity.getUniqueId();
+        State previous = states.get(Kind.SLOW).remove(entityId);
+        if (previous != null) {
+            removeOwnEffect(entity, previous);
+        }
+
+        entity.addPotionEffect(effect);
+        states.get(Kind.SLOW).put(entityId, new State(entityId, Kind.SLOW, null, false,
+                currentTick + effect.getDuration(), 0f, 0f, effect, null));
+    }
+
+    // ============ QUERIES ============
+
+    public boolean isRooted(UUID entityId) {
+        return states.get(Kind.ROOT).containsKey(entityId);
+    }
+
+    public boolean isSlowed(UUID entityId) {
+        return states.get(Kind.SLOW).containsKey(entityId);
+    }
+
+    /**
+     * Where a rooted entity is held, or null if it is not rooted.
+     * Movement listeners only need to snap back entities held by teleports, see isHeldByTeleport.
+     */
+    public Location getRootAnchor(UUID entityId) {
+        State state = states.get(Kind.ROOT).get(entityId);
+        return state != null ? state.anchor.clone() : null;
+    }
+
+    /**
+     * Whether a rooted entity is held by teleporting it back (no root attributes, or TELEPORT mode)
+     */
+    public boolean isHeldByTeleport(UUID entityId) {
+        State state = states.get(Kind.ROOT).get(entityId);
+        return state != null && !state.attributeRoot;
+    }
+
+    /**
+     * Remaining ticks of a state, or -1 if the entity is not under it
+     */
+    public long getRemainingTicks(UUID entityId, Kind kind) {
+        State state = states.get(kind).get(entityId);
+        return state != null ? Math.max(0, state.endTick - currentTick) : -1;
+    }
+
+    public int getActiveCount() {
+        int count = 0;
+        for (Map<UUID, State> byEntity : states.values()) {
+            count += byEntity.size();
+        }
+        return count;
+    }
+
+    // ============ RELEASING ============
+
+    /**
+     * End every state on an entity early (quit, death, admin commands)
+     */
+    public void release(UUID entityId) {
+        for (Kind kind : Kind.values()) {
+            release(entityId, kind);
+        }
+    }
+
+    public void release(UUID entityId, Kind kind) {
+        State state = states.get(kind).remove(entityId);
+        if (state != null) {
+            removed(state);
+            end(state);
+        }
+    }
+
+    /**
+     * Release everything, used on disable so no player keeps a zero walk speed
+     */
+    public void releaseAll() {
+        for (Map<UUID, State> byEntity : states.values()) {
+            List<State> active = new ArrayList<>(byEntity.values());
+            byEntity.clear();
+            active.forEach(this::removed);
+            active.forEach(this::end);
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+
+        for (Map<UUID, State> byEntity : states.values()) {
+            if (byEntity.isEmpty()) continue;
+
+            Iterator<State> iterator = byEntity.values().iterator();
+            while (iterator.hasNext()) {
+                State state = iterator.next();
+                if (currentTick >= state.endTick) {
+                    iterator.remove();
+                    removed(state);
+                    expired.add(state);
+                } else if (state.kind == Kind.ROOT) {
+                    // Attribute roots are leashed too: pearls, riptide, water or pistons still move them
+                    holdInPlace(state);
+                }
+            }
+        }
+
+        // Run release callbacks after iterating, they may apply new states
+        if (!expired.isEmpty()) {
+            for (State state : expired) {
+                end(state);
+            }
+            expired.clear();
+        }
+    }
+
+    private void removed(State state) {
+        if (state.kind == Kind.ROOT && !state.attributeRoot && --teleportHolds == 0 && teleportHoldWatcher != null) {
+            teleportHoldWatcher.accept(false);
+        }
+    }
+
+    // Snap back only when the entity left the leash, so a root that holds costs no teleports.
+    // Teleport roots use the full 3D leash, attribute roots may sink (falling) but not rise or move sideways.
+    private void holdInPlace(State state) {
+        Entity entity = Bukkit.getEntity(state.entityId);
+        if (entity == null || !entity.isValid() || entity.isDead()) {
+            return; // Unloaded or offline, keep the state until it ends
+        }
+
+        Location current = entity.getLocation();
+        boolean sameWorld = current.getWorld().equals(state.anchor.getWorld());
+        if (sameWorld && state.attributeRoot && current.getY() < state.anchor.getY()) {
+            // Attribute roots leave gravity alone: an entity rooted mid-air falls, the anchor follows it down
+            double dx = current.getX() - state.anchor.getX();
+            double dz = current.getZ() - state.anchor.getZ();
+            if (dx * dx + dz * dz <= ROOT_LEASH_SQUARED) {
+                state.anchor.setY(current.getY());
+            }
+        }
+
+        if (!sameWorld || current.distanceSquared(state.anchor) > ROOT_LEASH_SQUARED) {
+            // Preserve head/body rotation for players
+            Location anchor = state.anchor.clone();
+            if (entity instanceof Player) {
+                anchor.setYaw(current.getYaw());
+                anchor.setPitch(current.getPitch());
+            }
+            entity.teleport(anchor);
+            entity.setVelocity(ZERO);
+        }
+    }
+
+    private void end(State state) {
+        Entity entity = Bukkit.getEntity(state.entityId);
+        if (!(entity instanceof LivingEntity living) || !living.isValid() || living.isDead()) {
+            return;
+        }
+
+        if (state.kind == Kind.ROOT) {
+            if (state.attributeRoot) {
+                removeRootModifiers(living);
+            } else {
+                living.removePotionEffect(PotionEffectType.SLOWNESS);
+                living.removePotionEffect(PotionEffectType.JUMP_BOOST);
+            }
+
+            // Restore player speeds
+            if (living instanceof Player player) {
+                if (!state.attributeRoot) {
+                    player.setWalkSpeed(state.originalWalkSpeed);
+                }
+                player.setFlySpeed(state.originalFlySpeed);
+            }
+        } else if (state.effect != null) {
+            removeOwnEffect(living, state);
+        }
+
+        if (state.onRelease != null) {
+            state.onRelease.accept(living);
+        }
+    }
+
+    /**
+     * Remove a slow's potion effect only while it is still the one we applied: same amplifier and no more
+     * time left than ours has. A stronger or longer effect of the same type from a potion or another plugin
+     * has replaced ours and is left alone.
+     */
+    private void removeOwnEffect(LivingEntity entity, State state) {
+        PotionEffect current = entity.getPotionEffect(state.effect.getType());
+        if (current != null && current.getAmplifier() == state.effect.getAmplifier()
+                && !current.isInfinite() && current.getDuration() <= Math.max(0, state.endTick - currentTick) + 1) {
+            entity.removePotionEffect(state.effect.getType());
+        }
+    }
+
+    /**
+     * Zero movement and jumping and cancel knockback with transient modifiers.
+     * Returns false without changing anything if the entity lacks movement speed (teleport fallback).
+     */
+    private boolean applyRootModifiers(LivingEntity entity) {
+        AttributeInstance speed = entity.getAttribute(Attribute.MOVEMENT_SPEED);
+        if (speed == null) {
+            return false;
+        }
+
+        // MULTIPLY_SCALAR_1 by -1 multiplies the final value by zero
+        addTransient(speed, rootSpeedKey, -1.0, AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        addTransient(entity.getAttribute(Attribute.JUMP_STRENGTH), rootJumpKey, -1.0,
+                AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        // Flying mobs (bees, parrots...) move by flying speed instead
+        addTransient(entity.getAttribute(Attribute.FLYING_SPEED), rootFlyKey, -1.0,
+                AttributeModifier.Operation.MULTIPLY_SCALAR_1);
+        addTransient(entity.getAttribute(Attribute.KNOCKBACK_RESISTANCE), rootKnockbackKey, 1.0,
+                AttributeModifier.Operation.ADD_NUMBER);
+        return true;
+    }
+
+    private void removeRootModifiers(LivingEntity entity) {
+        removeModifier(entity.getAttribute(Attribute.MOVEMENT_SPEED), rootSpeedKey);
+        removeModifier(entity.getAttribute(Attribute.JUMP_STRENGTH), rootJumpKey);
+        removeModifier(entity.getAttribute(Attribute.FLYING_SPEED), rootFlyKey);
+        removeModifier(entity.getAttribute(Attribute.KNOCKBACK_RESISTANCE), rootKnockbackKey);
+    }
+
+    private static void addTransient(AttributeInstance instance, NamespacedKey key, double amount,
+                                     AttributeModifier.Operation operation) {
+        if (instance == null) return;
+
+        instance.removeModifier(key); // Never stack if a previous root was not cleaned up
+        instance.addTransientModifier(new AttributeModifier(key, amount, operation, EquipmentSlotGroup.ANY));
+    }
+
+    private static void removeModifier(AttributeInstance instance, NamespacedKey key) {
+        if (instance != null) {
+            instance.removeModifier(key);
+        }
+    }
+}
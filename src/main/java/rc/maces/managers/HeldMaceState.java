@@ -0,0 +1,46 @@
+package rc.maces.managers;
+
+import org.bukkit.entity.Player;
+
+/**
+ * What mace (if any) a player currently has in each hand.
+ * Maintained by HeldMaceTracker so tick tasks never have to touch an ItemStack.
+ */
+public class HeldMaceState {
+
+    private final Player player;
+    private MaceType mainHand = MaceType.NONE;
+    private MaceType offHand = MaceType.NONE;
+
+    HeldMaceState(Player player) {
+        this.player = player;
+    }
+
+    void update(MaceType mainHand, MaceType offHand) {
+        this.mainHand = mainHand;
+        this.offHand = offHand;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public MaceType getMainHand() {
+        return mainHand;
+    }
+
+    public MaceType getOffHand() {
+        return offHand;
+    }
+
+    /**
+     * Check if the given mace type is in either hand
+     */
+    public boolean isHolding(MaceType type) {
+        return mainHand == type || offHand == type;
+    }
+
+    public boolean isHoldingAny() {
+        return mainHand.isMace() || offHand.isMace();
+    }
+}
@@ -0,0 +1,196 @@
+package rc.maces.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityPickupItemEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerDropItemEvent;
+import org.bukkit.event.player.PlayerItemBreakEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps a HeldMaceState for every player holding a mace, updated only when
+ * what they hold can actually change (slot switch, hand swap, inventory edits,
+ * pickup/drop, death and respawn). Players without a mace are not tracked, so
+ * iterating the holders is O(mace holders) instead of O(online players).
+ */
+public class HeldMaceTracker implements Listener {
+
+    private final MaceManager maceManager;
+    private final Map<UUID, HeldMaceState> holders = new HashMap<>();
+    private final Collection<HeldMaceState> holdersView = Collections.unmodifiableCollection(holders.values());
+
+    // Players whose inventory changed this tick; re-read once on the next tick
+    private final Set<UUID> pendingRefresh = new HashSet<>();
+
+    public HeldMaceTracker(MaceManager maceManager) {
+        this.maceManager = maceManager;
+    }
+
+    /**
+     * All players currently holding a mace in either hand
+     */
+    public Collection<HeldMaceState> getHolders() {
+        return holdersView;
+    }
+
+    /**
+     * Get the held state for a player, or null if they are not holding a mace
+     */
+    public HeldMaceState getState(UUID playerId) {
+        return holders.get(playerId);
+    }
+
+    public MaceType getMainHand(Player player) {
+        HeldMaceState state = holders.get(player.getUniqueId());
+        return state != null ? state.getMainHand() : MaceType.NONE;
+    }
+
+    public boolean isHolding(Player player, MaceType type) {
+        HeldMaceState state = holders.get(player.getUniqueId());
+        return state != null && state.isHolding(type);
+    }
+
+    /**
+     * Re-read both hands of a player right now
+     */
+    public void refresh(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        update(player, maceManager.classify(inventory.getItemInMainHand()),
+                maceManager.classify(inventory.getItemInOffHand()));
+    }
+
+    /**
+     * Re-read every online player (used on enable, when no join events fire for players already online)
+     */
+    public void refreshAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+    }
+
+    /**
+     * Re-read both hands on the next tick, after the current inventory change has been applied
+     */
+    public void scheduleRefresh(Player player) {
+        boolean firstPending = pendingRefresh.isEmpty();
+        pendingRefresh.add(player.getUniqueId());
+
+        if (firstPending) {
+            Bukkit.getScheduler().runTask(maceManager.getPlugin(), this::flushPendingRefreshes);
+        }
+    }
+
+    private void flushPendingRefreshes() {
+        for (UUID playerId : pendingRefresh) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null && player.isOnline()) {
+                refresh(player);
+            }
+        }
+        pendingRefresh.clear();
+    }
+
+    private void update(Player player, MaceType mainHand, MaceType offHand) {
+        UUID playerId = player.getUniqueId();
+
+        if (!mainHand.isMace() && !offHand.isMace()) {
+            holders.remove(playerId);
+            return;
+        }
+
+        holders.computeIfAbsent(playerId, id -> new HeldMaceState(player)).update(mainHand, offHand);
+    }
+
+    private void clear(Player player) {
+        holders.remove(player.getUniqueId());
+        pendingRefresh.remove(player.getUniqueId());
+    }
+
+    // ============ EVENTS ============
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        refresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        clear(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        Player player = event.getPlayer();
+        PlayerInventory inventory = player.getInventory();
+        update(player, maceManager.classify(inventory.getItem(event.getNewSlot())),
+                maceManager.classify(inventory.getItemInOffHand()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        // The event items are what each hand will hold after the swap
+        update(event.getPlayer(), maceManager.classify(event.getMainHandItem()),
+                maceManager.classify(event.getOffHandItem()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            scheduleRefresh(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (event.getWhoClicked() instanceof Player player) {
+            scheduleRefresh(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPickup(EntityPickupItemEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            scheduleRefresh(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDrop(PlayerDropItemEvent event) {
+        scheduleRefresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onItemBreak(PlayerItemBreakEvent event) {
+        scheduleRefresh(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        clear(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        // Covers keepInventory, where the mace survives death
+        scheduleRefresh(event.getPlayer());
+    }
+}
@@ -0,0 +1,25 @@
+package rc.maces.managers;
+
+/**
+ * How mace cooldowns are shown to players, set per server in config.yml (hud.mode)
+ */
+public enum HudMode {
+
+    // Both abilities are shown in the action bar
+    ACTION_BAR,
+
+    // The right-click ability is drawn by the client as a cooldown sweep on the mace,
+    // the action bar is only used for the F-key ability while it is cooling down
+    COOLDOWN_OVERLAY;
+
+    public static HudMode fromConfig(String value) {
+        if (value != null) {
+            for (HudMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return ACTION_BAR;
+    }
+}
@@ -4,25 +4,56 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.components.UseCooldownComponent;
+import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.java.JavaPlugin;
 import rc.maces.abilities.AbilityManager;
+import rc.maces.tasks.DeferredActionWheel;
 
 import java.util.Arrays;
-import java.util.UUID;
 
 public class MaceManager {
 
     private final JavaPlugin plugin;
     private final CooldownManager cooldownManager;
+    private final DeferredActionWheel deferredActionWheel;
+    private final CombatJournal combatJournal;
+    private final CrowdControlManager crowdControlManager;
+    private final TemporaryBlockManager temporaryBlockManager;
+    private final ParticleBudget particleBudget;
     private final AbilityManager abilityManager;
-
-    public MaceManager(JavaPlugin plugin, CooldownManager cooldownManager, TrustManager trustManager) {
+    private final HeldMaceTracker heldMaceTracker;
+    private final NamespacedKey maceTypeKey;
+    private final NamespacedKey cooldownGroupKey; // Marks maces whose use-cooldown group is set
+    private final NamespacedKey[] cooldownGroups = new NamespacedKey[MaceType.values().length];
+    private final HudMode hudMode;
+
+    public MaceManager(JavaPlugin plugin, CooldownManager cooldownManager, TrustManager trustManager,
+                       DeferredActionWheel deferredActionWheel, CombatJournal combatJournal,
+                       CrowdControlManager crowdControlManager, TemporaryBlockManager temporaryBlockManager,
+                       ParticleBudget particleBudget) {
         this.plugin = plugin;
         this.cooldownManager = cooldownManager;
+        this.deferredActionWheel = deferredActionWheel;
+        this.combatJournal = combatJournal;
+        this.crowdControlManager = crowdControlManager;
+        this.temporaryBlockManager = temporaryBlockManager;
+        this.particleBudget = particleBudget;
+        this.maceTypeKey = new NamespacedKey(plugin, "mace_type");
+        this.cooldownGroupKey = new NamespacedKey(plugin, "cooldown_group");
+        for (MaceType type : MaceType.values()) {
+            if (type.isMace()) {
+                cooldownGroups[type.ordinal()] = new NamespacedKey(plugin, type.name().toLowerCase() + "_mace");
+            }
+        }
+        this.hudMode = HudMode.fromConfig(plugin.getConfig().getString("hud.mode"));
         this.abilityManager = new AbilityManager(plugin, cooldownManager, this, trustManager);
+        this.heldMaceTracker = new HeldMaceTracker(this);
     }
 
     public ItemStack createAirMace() {
@@ -40,6 +71,8 @@ public class MaceManager {
                         .color(NamedTextColor.DARK_GRAY)
         ));
 
+        applyMaceType(meta, MaceType.AIR);
+
         mace.setItemMeta(meta);
         return mace;
     }
@@ -59,6 +92,8 @@ public class MaceManager {
                         .color(NamedTextColor.DARK_GRAY)
         ));
 
+        applyMaceType(meta, MaceType.FIRE);
+
         mace.setItemMeta(meta);
         return mace;
     }
@@ -78,6 +113,8 @@ public class MaceManager {
                         .color(NamedTextColor.DARK_GRAY)
         ));
 
+        applyMaceType(meta, MaceType.WATER);
+
         mace.setItemMeta(meta);
         return mace;
     }
@@ -97,81 +134,173 @@ public class MaceManager {
                         .color(NamedTextColor.DARK_GRAY)
         ));
 
+        applyMaceType(meta, MaceType.EARTH);
+
         mace.setItemMeta(meta);
         return mace;
     }
 
+    /**
+     * Write the type tag. In COOLDOWN_OVERLAY mode the mace also gets its own use-cooldown group,
+     * so client cooldown overlays only show on maces of the same type; other modes leave items alone.
+     */
+    private void applyMaceType(ItemMeta meta, MaceType type) {
+        meta.getPersistentDataContainer().set(maceTypeKey, PersistentDataType.BYTE, type.getId());
+        if (hudMode != HudMode.COOLDOWN_OVERLAY) return;
+
+        UseCooldownComponent useCooldown = meta.getUseCooldown();
+        useCooldown.setCooldownGroup(getCooldownGroup(type));
+        useCooldown.setCooldownSeconds(0.05f); // Maces have no vanilla use, only the group matters
+        meta.setUseCooldown(useCooldown);
+        // Tag read by tagLegacyMace, so tagged maces are checked without copying the meta
+        meta.getPersistentDataContainer().set(cooldownGroupKey, PersistentDataType.BYTE, type.getId());
+    }
+
+    /**
+     * Client cooldown group shared by all maces of a type, or null for NONE
+     */
+    public NamespacedKey getCooldownGroup(MaceType type) {
+        return cooldownGroups[type.ordinal()];
+    }
+
+    /**
+     * Classify an item with a material check and a single tag read.
+     * Does not copy the ItemMeta, so it is safe to call from per-tick tasks.
+     */
+    public MaceType classify(ItemStack item) {
+        if (item == null || item.getType() != Material.MACE) return MaceType.NONE;
+        Byte id = item.getPersistentDataContainer().get(maceTypeKey, PersistentDataType.BYTE);
+        return id == null ? MaceType.NONE : MaceType.fromId(id);
+    }
+
     public boolean isAirMace(ItemStack item) {
-        if (item == null || item.getType() != Material.MACE) return false;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null || meta.displayName() == null) return false;
-        return meta.displayName().toString().contains("Air Mace");
+        return classify(item) == MaceType.AIR;
     }
 
     public boolean isFireMace(ItemStack item) {
-        if (item == null || item.getType() != Material.MACE) return false;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null || meta.displayName() == null) return false;
-        return meta.displayName().toString().contains("Fire Mace");
+        return classify(item) == MaceType.FIRE;
     }
 
     public boolean isWaterMace(ItemStack item) {
-        if (item == null || item.getType() != Material.MACE) return false;
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null || meta.displayName() == null) return false;
-        return meta.displayName().toString().contains("Water Mace");
+        return classify(item) == MaceType.WATER;
     }
 
     public boolean isEarthMace(ItemStack item) {
-        if (item == null || item.getType() != Material.MACE) return false;
+        return classify(item) == MaceType.EARTH;
+    }
+
+    public boolean isCustomMace(ItemStack item) {
+        return classify(item).isMace();
+    }
+
+    /**
+     * Stamp the mace type tag onto a mace created before tagging existed.
+     * Legacy maces are recognised by their display name, like they used to be.
+     * In COOLDOWN_OVERLAY mode, tagged maces that predate cooldown groups get their group added.
+     * Tagged maces are checked with tag reads only, so this is cheap enough for every inventory event.
+     * Returns true if the item was updated.
+     */
+    public boolean tagLegacyMace(ItemStack item) {
+        if (item == null || item.getType() != Material.MACE || !item.hasItemMeta()) return false;
+
+        MaceType tagged = classify(item);
+        if (tagged.isMace()) {
+            Byte group = item.getPersistentDataContainer().get(cooldownGroupKey, PersistentDataType.BYTE);
+            if (hudMode != HudMode.COOLDOWN_OVERLAY || (group != null && group == tagged.getId())) {
+                return false;
+            }
+            ItemMeta meta = item.getItemMeta();
+            applyMaceType(meta, tagged);
+            item.setItemMeta(meta);
+            return true;
+        }
+
         ItemMeta meta = item.getItemMeta();
         if (meta == null || meta.displayName() == null) return false;
-        return meta.displayName().toString().contains("Earth Mace");
+
+        String name = meta.displayName().toString();
+        MaceType type;
+        if (name.contains("Air Mace")) {
+            type = MaceType.AIR;
+        } else if (name.contains("Fire Mace")) {
+            type = MaceType.FIRE;
+        } else if (name.contains("Water Mace")) {
+            type = MaceType.WATER;
+        } else if (name.contains("Earth Mace")) {
+            type = MaceType.EARTH;
+        } else {
+            return false;
+        }
+
+        applyMaceType(meta, type);
+        item.setItemMeta(meta);
+        return true;
     }
 
-    public boolean isCustomMace(ItemStack item) {
-        return isAirMace(item) || isFireMace(item) || isWaterMace(item) || isEarthMace(item);
+    /**
+     * Upgrade any untagged legacy maces in a player's inventory and ender chest
+     */
+    public int tagLegacyMaces(Player player) {
+        return tagLegacyMaces(player.getInventory()) + tagLegacyMaces(player.getEnderChest());
+    }
+
+    /**
+     * Upgrade any untagged legacy maces in an inventory (chests, shulker boxes, ender chests...)
+     */
+    public int tagLegacyMaces(Inventory inventory) {
+        int updated = 0;
+        ItemStack[] contents = inventory.getContents();
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (tagLegacyMace(contents[slot])) {
+                inventory.setItem(slot, contents[slot]); // Contents may be copies
+                updated++;
+            }
+        }
+        return updated;
     }
 
     public void giveAirMace(Player player) {
         player.getInventory().addItem(createAirMace());
+        heldMaceTracker.scheduleRefresh(player);
     }
 
     public void giveFireMace(Player player) {
         player.getInventory().addItem(createFireMace());
+        heldMaceTracker.scheduleRefresh(player);
     }
 
     public void giveWaterMace(Player player) {
         player.getInventory().addItem(createWaterMace());
+        heldMaceTracker.scheduleRefresh(player);
     }
 
     public void giveEarthMace(Player player) {
         player.getInventory().addItem(createEarthMace());
+        heldMaceTracker.scheduleRefresh(player);
     }
 
     public String getActionBarStatus(Player player) {
-        ItemStack mainHand = player.getInventory().getItemInMainHand();
-        if (!isCustomMace(mainHand)) return "";
+        MaceType type = classify(player.getInventory().getItemInMainHand());
+        if (!type.isMace()) return "";
 
-        UUID playerId = player.getUniqueId();
         StringBuilder sb = new StringBuilder();
 
-        if (isAirMace(mainHand)) {
+        if (type == MaceType.AIR) {
             sb.append("§f§lAir §7§lMace §8| ");
             appendAbilityStatus(sb, player, AbilityManager.WIND_SHOT, "Wind Shot", "§f");
             sb.append(" §8| ");
             appendAbilityStatus(sb, player, AbilityManager.WIND_STRUCK, "Wind Struck", "§7");
-        } else if (isFireMace(mainHand)) {
+        } else if (type == MaceType.FIRE) {
             sb.append("§c§lFire §6§lMace §8| ");
             appendAbilityStatus(sb, player, AbilityManager.OBSIDIAN_CREATION, "Obsidian Creation", "§6");
             sb.append(" §8| ");
             appendAbilityStatus(sb, player, AbilityManager.METEORS, "Meteors", "§6");
-        } else if (isWaterMace(mainHand)) {
+        } else if (type == MaceType.WATER) {
             sb.append("§1§lWater §9§lMace §8| ");
             appendAbilityStatus(sb, player, AbilityManager.WATER_HEAL, "Water Heal", "§9");
             sb.append(" §8| ");
             appendAbilityStatus(sb, player, AbilityManager.WATER_GEYSER, "Water Geyser", "§1");
-        } else if (isEarthMace(mainHand)) {
+        } else if (type == MaceType.EARTH) {
             sb.append("§2§lEarth §a§lMace §8| ");
             appendAbilityStatus(sb, player, AbilityManager.BUDDY_UP, "Buddy Up", "§2");
             sb.append(" §8| ");
@@ -198,6 +327,38 @@ public class MaceManager {
         return abilityManager;
     }
 
+    public DeferredActionWheel getDeferredActionWheel() {
+        return deferredActionWheel;
+    }
+
+    public CombatJournal getCombatJournal() {
+        return combatJournal;
+    }
+
+    public CrowdControlManager getCrowdControlManager() {
+        return crowdControlManager;
+    }
+
+    public TemporaryBlockManager getTemporaryBlockManager() {
+        return temporaryBlockManager;
+    }
+
+    public ParticleBudget getParticleBudget() {
+        return particleBudget;
+    }
+
+    public HeldMaceTracker getHeldMaceTracker() {
+        return heldMaceTracker;
+    }
+
+    public HudMode getHudMode() {
+        return hudMode;
+    }
+
+    public NamespacedKey getMaceTypeKey() {
+        return maceTypeKey;
+    }
+
     public JavaPlugin getPlugin() {
         return plugin;
     }
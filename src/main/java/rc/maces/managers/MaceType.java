@@ -0,0 +1,47 @@
+package rc.maces.managers;
+
+/**
+ * The elemental mace variants. The id is what gets written into the mace's
+ * PersistentDataContainer, so existing ids must never be changed or reused.
+ */
+public enum MaceType {
+
+    NONE((byte) 0),
+    AIR((byte) 1),
+    FIRE((byte) 2),
+    WATER((byte) 3),
+    EARTH((byte) 4);
+
+    private static final MaceType[] BY_ID = new MaceType[5];
+
+    static {
+        for (MaceType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    private final byte id;
+
+    MaceType(byte id) {
+        this.id = id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * Element key used by ElementManager ("AIR", "FIRE", ...), or null for NONE
+     */
+    public String getElement() {
+        return this == NONE ? null : name();
+    }
+
+    public boolean isMace() {
+        return this != NONE;
+    }
+
+    public static MaceType fromId(byte id) {
+        return id > 0 && id < BY_ID.length ? BY_ID[id] : NONE;
+    }
+}
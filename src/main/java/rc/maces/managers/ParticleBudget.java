@@ -0,0 +1,65 @@
+package rc.maces.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends ability particles per viewer instead of broadcasting them with World.spawnParticle.
+ * Only players within particles.view-radius receive a burst, and each player gets at most
+ * particles.max-packets-per-tick bursts per tick. Past half of that budget the particle count of
+ * every further burst is scaled down, so a big fight thins out its effects instead of flooding
+ * clients, and bursts beyond the budget are dropped for that player only.
+ * Main thread only.
+ */
+public class ParticleBudget {
+
+    private final double viewRadius;
+    private final int maxPacketsPerTick;
+    private final int fullCountPackets; // Bursts per tick sent at full count before scaling starts
+    private final Map<UUID, int[]> packetsThisTick = new HashMap<>();
+    private int currentTick = -1;
+
+    public ParticleBudget(JavaPlugin plugin) {
+        FileConfiguration config = plugin.getConfig();
+        this.viewRadius = Math.max(1.0, config.getDouble("particles.view-radius", 32.0));
+        this.maxPacketsPerTick = Math.max(1, config.getInt("particles.max-packets-per-tick", 48));
+        this.fullCountPackets = Math.max(1, maxPacketsPerTick / 2);
+    }
+
+    /**
+     * Show a burst of particles to the players close enough to see it, within their budget
+     */
+    public void spawn(Particle particle, Location location, int count) {
+        int tick = Bukkit.getCurrentTick();
+        if (tick != currentTick) {
+            currentTick = tick;
+            packetsThisTick.clear();
+        }
+
+        for (Player viewer : location.getWorld().getNearbyPlayers(location, viewRadius)) {
+            int[] sent = packetsThisTick.computeIfAbsent(viewer.getUniqueId(), id -> new int[1]);
+            if (sent[0] >= maxPacketsPerTick) {
+                continue; // Out of budget this tick
+            }
+
+            int scaledCount = count;
+            if (sent[0] >= fullCountPackets && count > 1) {
+                // Linearly fewer particles per burst as the rest of the budget is used up
+                int remaining = maxPacketsPerTick - sent[0];
+                int scaleRange = maxPacketsPerTick - fullCountPackets;
+                scaledCount = Math.max(1, count * remaining / scaleRange);
+            }
+
+            sent[0]++;
+            viewer.spawnParticle(particle, location, scaledCount);
+        }
+    }
+}
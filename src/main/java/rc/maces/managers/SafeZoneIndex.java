@@ -0,0 +1,187 @@
+package rc.maces.managers;
+
+import rc.maces.managers.CombatTimer.SafeZone;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index for the safe zones of one world.
+ * Zones are bucketed by chunk column (x >> 4, z >> 4) in an open-addressing long -> SafeZone[] table,
+ * so a point lookup is one hash probe plus a scan of the few zones touching that chunk,
+ * without boxing or allocating. Very large zones are kept in a small separate list
+ * instead of being copied into thousands of cells.
+ * The table is rebuilt on add/remove, which only happens through admin commands.
+ */
+class SafeZoneIndex {
+
+    private static final int CELL_SHIFT = 4;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+    private static final long MAX_CELLS_PER_ZONE = 4096;
+    private static final int MAX_SEARCH_RINGS = 64; // 1024 blocks, further than that falls back to a full scan
+    private static final SafeZone[] NO_ZONES = new SafeZone[0];
+
+    private final List<SafeZone> zones = new ArrayList<>();
+    private final List<SafeZone> zonesView = Collections.unmodifiableList(zones);
+    private SafeZone[] largeZones = NO_ZONES;
+    private long[] keys = new long[0];
+    private SafeZone[][] cells = new SafeZone[0][];
+    private int mask = -1;
+
+    void add(SafeZone zone) {
+        zones.add(zone);
+        rebuild();
+    }
+
+    boolean remove(SafeZone zone) {
+        boolean removed = zones.remove(zone);
+        if (removed) {
+            rebuild();
+        }
+        return removed;
+    }
+
+    List<SafeZone> getZones() {
+        return zonesView;
+    }
+
+    boolean isEmpty() {
+        return zones.isEmpty();
+    }
+
+    /**
+     * Get the zone containing a block position, or null
+     */
+    SafeZone find(int x, int y, int z) {
+        for (SafeZone zone : lookup(x >> CELL_SHIFT, z >> CELL_SHIFT)) {
+            if (zone.contains(x, y, z)) return zone;
+        }
+        for (SafeZone zone : largeZones) {
+            if (zone.contains(x, y, z)) return zone;
+        }
+        return null;
+    }
+
+    /**
+     * Distance from a block position to the nearest zone edge, -1 if inside a zone,
+     * Double.MAX_VALUE if the world has no zones.
+     * Searches outward ring by ring from the position's chunk and stops as soon as no closer zone is possible.
+     */
+    double nearestDistance(int x, int y, int z) {
+        if (zones.isEmpty()) return Double.MAX_VALUE;
+        if (find(x, y, z) != null) return -1;
+
+        long best = Long.MAX_VALUE;
+        for (SafeZone zone : largeZones) {
+            best = Math.min(best, zone.distanceSquared(x, y, z));
+        }
+
+        int centerX = x >> CELL_SHIFT;
+        int centerZ = z >> CELL_SHIFT;
+        boolean settled = false;
+
+        for (int ring = 0; ring <= MAX_SEARCH_RINGS; ring++) {
+            // Every block in this ring is at least (ring - 1) cells away horizontally
+            long minReach = (long) Math.max(0, ring - 1) * CELL_SIZE;
+            if (best <= minReach * minReach) {
+                settled = true;
+                break;
+            }
+
+            for (int dx = -ring; dx <= ring; dx++) {
+                boolean edgeColumn = dx == -ring || dx == ring;
+                int step = edgeColumn ? 1 : 2 * ring;
+                for (int dz = -ring; dz <= ring; dz += Math.max(1, step)) {
+                    for (SafeZone zone : lookup(centerX + dx, centerZ + dz)) {
+                        best = Math.min(best, zone.distanceSquared(x, y, z));
+                    }
+                }
+            }
+        }
+
+        if (!settled) {
+            // Nothing settled within the search radius, fall back to checking every zone
+            for (SafeZone zone : zones) {
+                best = Math.min(best, zone.distanceSquared(x, y, z));
+            }
+        }
+
+        return best == Long.MAX_VALUE ? Double.MAX_VALUE : Math.sqrt(best);
+    }
+
+    private SafeZone[] lookup(int cellX, int cellZ) {
+        if (mask < 0) return NO_ZONES;
+
+        long key = pack(cellX, cellZ);
+        int index = hash(key) & mask;
+        while (cells[index] != null) {
+            if (keys[index] == key) return cells[index];
+            index = (index + 1) & mask;
+        }
+        return NO_ZONES;
+    }
+
+    private void rebuild() {
+        List<SafeZone> large = new ArrayList<>();
+        Map<Long, List<SafeZone>> buckets = new HashMap<>();
+
+        for (SafeZone zone : zones) {
+            int minCellX = zone.getMinX() >> CELL_SHIFT;
+            int maxCellX = zone.getMaxX() >> CELL_SHIFT;
+            int minCellZ = zone.getMinZ() >> CELL_SHIFT;
+            int maxCellZ = zone.getMaxZ() >> CELL_SHIFT;
+
+            long cellCount = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+            if (cellCount > MAX_CELLS_PER_ZONE) {
+                large.add(zone);
+                continue;
+            }
+
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    buckets.computeIfAbsent(pack(cellX, cellZ), key -> new ArrayList<>()).add(zone);
+                }
+            }
+        }
+
+        largeZones = large.toArray(NO_ZONES);
+
+        if (buckets.isEmpty()) {
+            keys = new long[0];
+            cells = new SafeZone[0][];
+            mask = -1;
+            return;
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(2, buckets.size() * 2 - 1)) << 1;
+        long[] newKeys = new long[capacity];
+        SafeZone[][] newCells = new SafeZone[capacity][];
+        int newMask = capacity - 1;
+
+        for (var entry : buckets.entrySet()) {
+            long key = entry.getKey();
+            int index = hash(key) & newMask;
+            while (newCells[index] != null) {
+                index = (index + 1) & newMask;
+            }
+            newKeys[index] = key;
+            newCells[index] = entry.getValue().toArray(NO_ZONES);
+        }
+
+        keys = newKeys;
+        cells = newCells;
+        mask = newMask;
+    }
+
+    private static long pack(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
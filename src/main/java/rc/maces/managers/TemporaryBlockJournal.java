@@ -0,0 +1,262 @@
+package rc.maces.managers;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Append-only journal of temporary blocks for TemporaryBlockManager, written by a background thread.
+ *
+ * Lines are "+ <world> <position> <placed material> <original block data>" when a block becomes temporary
+ * and "- <world> <position>" once it is restored. The writer appends and forces each batch of lines to disk,
+ * then publishes the last durable sequence number so the main thread only changes a block after its entry
+ * is safely stored. When the file grows well past the live entries it is compacted into a temp file and
+ * atomically moved over the journal, so a crash at any point leaves either the old or the new file.
+ */
+class TemporaryBlockJournal {
+
+    private static final long COMPACT_SLACK = 1024; // Extra lines tolerated before compacting
+
+    private static final class Record {
+        final long sequence;
+        final String key;  // "<world> <position>"
+        final String line; // Full "+" line, or null for a removal
+
+        Record(long sequence, String key, String line) {
+            this.sequence = sequence;
+            this.key = key;
+            this.line = line;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final Path journalPath;
+    private final Path tempPath;
+    private final LinkedBlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+    private final Map<String, String> live = new LinkedHashMap<>(); // Writer thread only
+    private long nextSequence = 1; // Main thread only
+    private volatile long durableSequence = 0;
+    private volatile boolean running;
+    private Thread writerThread;
+    private FileChannel channel;
+    private long linesInFile;
+    private boolean writeFailed;
+
+    TemporaryBlockJournal(JavaPlugin plugin, File journalFile) {
+        this.plugin = plugin;
+        this.journalPath = journalFile.toPath();
+        this.tempPath = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp").toPath();
+    }
+
+    /**
+     * Start the writer thread. It first reads what a previous run left in the journal and hands those
+     * "+" lines to onLoaded on the main thread.
+     */
+    void start(Consumer<List<String>> onLoaded) {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(() -> writerLoop(onLoaded), plugin.getName() + "-TempBlockJournal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer after everything queued is on disk, then compact the file one last time
+     */
+    void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+
+        running = false;
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    /**
+     * Journal a block as temporary, returns the sequence number to wait for with isDurable
+     */
+    long add(UUID world, long position, String placed, String original) {
+        String key = world + " " + position;
+        long sequence = nextSequence++;
+        queue.add(new Record(sequence, key, "+ " + key + " " + placed + " " + original));
+        return sequence;
+    }
+
+    /**
+     * Journal a block as restored
+     */
+    void remove(UUID world, long position) {
+        queue.add(new Record(nextSequence++, world + " " + position, null));
+    }
+
+    boolean isDurable(long sequence) {
+        return sequence <= durableSequence;
+    }
+
+    // ============ WRITER THREAD ============
+
+    private void writerLoop(Consumer<List<String>> onLoaded) {
+        load();
+        List<String> leftOver = new ArrayList<>(live.values());
+        if (!leftOver.isEmpty()) {
+            plugin.getServer().getScheduler().runTask(plugin, () -> onLoaded.accept(leftOver));
+        }
+        compact(); // Drop the "-" lines of the previous run
+
+        List<Record> batch = new ArrayList<>();
+        while (true) {
+            Record first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+                running = false;
+            }
+
+            if (first == null) {
+                if (!running && queue.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+
+            batch.add(first);
+            queue.drainTo(batch);
+            append(batch);
+            batch.clear();
+
+            if (linesInFile > live.size() * 2L + COMPACT_SLACK) {
+                compact();
+            }
+        }
+
+        compact();
+        closeChannel();
+    }
+
+    private void load() {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+
+        try {
+            for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+                // A line cut off by a crash fails these checks or restores nothing, see restoreBlock
+                String[] parts = line.split(" ", 4);
+                if (parts.length < 3) continue;
+
+                String key = parts[1] + " " + parts[2];
+                if (parts[0].equals("+") && parts.length == 4) {
+                    live.put(key, line);
+                } else if (parts[0].equals("-")) {
+                    live.remove(key);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read temporary block journal", e);
+        }
+    }
+
+    private void append(List<Record> batch) {
+        StringBuilder text = new StringBuilder();
+        for (Record record : batch) {
+            if (record.line != null) {
+                live.put(record.key, record.line);
+                text.append(record.line).append('\n');
+            } else if (live.remove(record.key) != null) {
+                text.append("- ").append(record.key).append('\n');
+            } else {
+                continue;
+            }
+            linesInFile++;
+        }
+
+        if (text.length() > 0) {
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                logWriteFailure(e);
+            }
+        }
+
+        // Published even if the write failed, abilities keep working without a journal
+        durableSequence = batch.get(batch.size() - 1).sequence;
+    }
+
+    private void compact() {
+        closeChannel();
+        try {
+            if (live.isEmpty()) {
+                Files.deleteIfExists(journalPath);
+            } else {
+                try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                    for (String line : live.values()) {
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+                try (FileChannel temp = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                    temp.force(true);
+                }
+                Files.move(tempPath, journalPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            linesInFile = live.size();
+        } catch (IOException e) {
+            logWriteFailure(e);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already forced after every append
+        }
+        channel = null;
+    }
+
+    private void logWriteFailure(IOException e) {
+        if (!writeFailed) {
+            writeFailed = true; // Once, instead of every tick while the disk is unhappy
+            plugin.getLogger().log(Level.WARNING, "Failed to write temporary block journal", e);
+        }
+    }
+}
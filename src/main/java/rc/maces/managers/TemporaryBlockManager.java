@@ -0,0 +1,402 @@
+package rc.maces.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import rc.maces.tasks.DeferredActionWheel;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Temporary world edits made by abilities (Obsidian Creation, Wind Struck cobwebs...).
+ * Blocks are placed in batches with physics disabled, tracked per world by packed long coordinates,
+ * and each batch is restored by a single action on the deferred action wheel.
+ *
+ * Placements and restores are not applied on the spot: they go into one queue that is drained
+ * every tick within a budget (world-edits.max-blocks-per-tick / max-micros-per-tick), so one cast
+ * against a crowd is spread over a few ticks instead of rewriting hundreds of blocks at once.
+ * A queued placement is skipped if the block changed since the ability looked at it.
+ *
+ * Every temporary block is written to temp-blocks.journal before it is changed: a placement is
+ * journalled when it leaves the queue and only applied on a later tick, once the journal writer
+ * reports the entry is on disk. If the server stops before a batch is restored, the original blocks
+ * are put back on the next start. A restore only happens while the block still holds what we placed,
+ * so blocks players changed in the meantime are left alone.
+ * Main thread only (the journal does its file work on its own thread).
+ */
+public class TemporaryBlockManager {
+
+    private static final String JOURNAL_FILE = "temp-blocks.journal";
+
+    private static final class TempBlock {
+        final World world;
+        final long key;
+        final BlockData original;
+        Material placed;
+        Batch owner; // Latest batch to place here, only that batch restores it
+
+        TempBlock(World world, long key, BlockData original) {
+            this.world = world;
+            this.key = key;
+            this.original = original;
+        }
+    }
+
+    // One queued world edit: a placement (block + material) or the restore of a temporary block
+    private static final class Edit {
+        final Batch batch;
+        final Block block;
+        final Material material;
+        final Material expected; // Block type the ability saw when it queued the placement
+        final TempBlock restore;
+        BlockData original; // Set once the placement is journalled
+        long journalSequence;
+
+        private Edit(Batch batch, Block block, Material material, Material expected, TempBlock restore) {
+            this.batch = batch;
+            this.block = block;
+            this.material = material;
+            this.expected = expected;
+            this.restore = restore;
+        }
+    }
+
+    /**
+     * A group of temporary blocks restored together after the same delay.
+     * place() the blocks, then commit() once to schedule the restore.
+     */
+    public final class Batch {
+        private final World world;
+        private final long durationTicks;
+        private final List<TempBlock> placed = new ArrayList<>();
+        private final Set<Long> queuedKeys = new HashSet<>(); // Overlapping areas queue a block only once
+        private Consumer<Block> onApply;
+        private int queued;
+        private boolean committed;
+        private boolean expired;
+
+        private Batch(World world, long durationTicks) {
+            this.world = world;
+            this.durationTicks = durationTicks;
+        }
+
+        /**
+         * Run for every block of this batch when it is actually changed (effects, sounds)
+         */
+        public void onApply(Consumer<Block> onApply) {
+            this.onApply = onApply;
+        }
+
+        /**
+         * Queue a block change for the lifetime of this batch, applied without physics or neighbour updates.
+         * Blocks in another world than the batch's, or already queued by this batch, are ignored.
+         * Returns true if the change was queued.
+         */
+        public boolean place(Block block, Material material) {
+            if (committed || !block.getWorld().equals(world)
+                    || !queuedKeys.add(pack(block.getX(), block.getY(), block.getZ()))) {
+                return false;
+            }
+
+            queue.add(new Edit(this, block, material, block.getType(), null));
+            queued++;
+            return true;
+        }
+
+        /**
+         * Schedule the restore, counted from now
+         */
+        public void commit() {
+            if (committed) {
+                return;
+            }
+
+            committed = true;
+            if (queued > 0) {
+                wheel.schedule(durationTicks, () -> expire(this));
+            }
+        }
+
+        /**
+         * Number of block changes queued by this batch
+         */
+        public int size() {
+            return queued;
+        }
+    }
+
+    private final JavaPlugin plugin;
+    private final DeferredActionWheel wheel;
+    private final Map<UUID, Map<Long, TempBlock>> blocks = new HashMap<>();
+    private final ArrayDeque<Edit> queue = new ArrayDeque<>();
+    private final ArrayDeque<Edit> journalled = new ArrayDeque<>(); // Placements waiting for their journal entry
+    private final int maxBlocksPerTick;
+    private final long maxNanosPerTick;
+    private final TemporaryBlockJournal journal;
+
+    public TemporaryBlockManager(JavaPlugin plugin, DeferredActionWheel wheel) {
+        this.plugin = plugin;
+        this.wheel = wheel;
+        this.journal = new TemporaryBlockJournal(plugin, new File(plugin.getDataFolder(), JOURNAL_FILE));
+
+        FileConfiguration config = plugin.getConfig();
+        this.maxBlocksPerTick = Math.max(1, config.getInt("world-edits.max-blocks-per-tick", 64));
+        this.maxNanosPerTick = Math.max(100, config.getLong("world-edits.max-micros-per-tick", 1500)) * 1000L;
+    }
+
+    /**
+     * Start draining queued edits once per tick, and the journal writer.
+     * Blocks left behind by a previous run are restored on the main thread once the journal is read.
+     */
+    public void start() {
+        journal.start(this::replayJournal);
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Start a batch of temporary blocks in one world, restored durationTicks after commit()
+     */
+    public Batch batch(World world, long durationTicks) {
+        return new Batch(world, durationTicks);
+    }
+
+    public boolean isTemporary(Block block) {
+        Map<Long, TempBlock> worldBlocks = blocks.get(block.getWorld().getUID());
+        return worldBlocks != null && worldBlocks.containsKey(pack(block.getX(), block.getY(), block.getZ()));
+    }
+
+    public int getPendingCount() {
+        int count = 0;
+        for (Map<Long, TempBlock> worldBlocks : blocks.values()) {
+            count += worldBlocks.size();
+        }
+        return count;
+    }
+
+    /**
+     * Number of placements and restores waiting for a later tick
+     */
+    public int getQueuedCount() {
+        return queue.size() + journalled.size();
+    }
+
+    private void tick() {
+        if (queue.isEmpty() && journalled.isEmpty()) {
+            return;
+        }
+
+        // Apply edits until either budget runs out, the rest waits for the next tick
+        long deadline = System.nanoTime() + maxNanosPerTick;
+        int applied = 0;
+
+        // Placements journalled on an earlier tick, in order, as far as the journal has them on disk
+        while (applied < maxBlocksPerTick && !journalled.isEmpty() && journal.isDurable(journalled.peek().journalSequence)) {
+            if (applyPlacement(journalled.poll())) {
+                applied++;
+            }
+            if (System.nanoTime() >= deadline) return;
+        }
+
+        // New edits: restores apply right away, placements are journalled and applied on a later tick
+        while (applied < maxBlocksPerTick && !queue.isEmpty()) {
+            Edit edit = queue.poll();
+            if (edit.restore != null ? applyRestore(edit) : journalPlacement(edit)) {
+                applied++;
+            }
+            if (System.nanoTime() >= deadline) break;
+        }
+    }
+
+    private boolean journalPlacement(Edit edit) {
+        Batch batch = edit.batch;
+        Block block = edit.block;
+
+        // Too late (batch already restored) or someone changed the block while it was queued
+        if (batch.expired || block.getType() != edit.expected) {
+            return false;
+        }
+
+        // Write ahead: the entry must be on disk before the block changes
+        long key = pack(block.getX(), block.getY(), block.getZ());
+        TempBlock existing = temporaryBlockAt(batch.world, key);
+        edit.original = existing != null ? existing.original : block.getBlockData();
+        edit.journalSequence = journal.add(batch.world.getUID(), key, edit.material.getKey().toString(),
+                edit.original.getAsString());
+        journalled.add(edit);
+        return true;
+    }
+
+    private boolean applyPlacement(Edit edit) {
+        Batch batch = edit.batch;
+        Block block = edit.block;
+        long key = pack(block.getX(), block.getY(), block.getZ());
+        Map<Long, TempBlock> worldBlocks = blocks.computeIfAbsent(batch.world.getUID(), id -> new HashMap<>());
+        TempBlock tempBlock = worldBlocks.get(key);
+
+        // Expired or changed while the journal entry was written: take the entry back
+        if (batch.expired || block.getType() != edit.expected) {
+            if (tempBlock != null) {
+                journalBlock(tempBlock); // The block is still temporary for an earlier batch
+            } else {
+                journal.remove(batch.world.getUID(), key);
+            }
+            return false;
+        }
+
+        if (tempBlock == null) {
+            // First temporary change here, remember what was there before
+            tempBlock = new TempBlock(batch.world, key, edit.original);
+            worldBlocks.put(key, tempBlock);
+        }
+
+        tempBlock.placed = edit.material;
+        if (tempBlock.owner != batch) {
+            tempBlock.owner = batch;
+            batch.placed.add(tempBlock);
+        }
+        block.setType(edit.material, false);
+
+        if (batch.onApply != null) {
+            batch.onApply.accept(block);
+        }
+        return true;
+    }
+
+    // The batch's time is up: drop its remaining placements and queue the restores
+    private void expire(Batch batch) {
+        batch.expired = true;
+        for (TempBlock tempBlock : batch.placed) {
+            queue.add(new Edit(batch, null, null, null, tempBlock));
+        }
+    }
+
+    private boolean applyRestore(Edit edit) {
+        TempBlock tempBlock = edit.restore;
+        Map<Long, TempBlock> worldBlocks = blocks.get(tempBlock.world.getUID());
+
+        // A later batch took this block over, it restores it instead
+        if (tempBlock.owner != edit.batch || worldBlocks == null || worldBlocks.get(tempBlock.key) != tempBlock) {
+            return false;
+        }
+
+        worldBlocks.remove(tempBlock.key);
+        if (worldBlocks.isEmpty()) {
+            blocks.remove(tempBlock.world.getUID());
+        }
+        restoreBlock(tempBlock);
+        journal.remove(tempBlock.world.getUID(), tempBlock.key);
+        return true;
+    }
+
+    private TempBlock temporaryBlockAt(World world, long key) {
+        Map<Long, TempBlock> worldBlocks = blocks.get(world.getUID());
+        return worldBlocks != null ? worldBlocks.get(key) : null;
+    }
+
+    private void journalBlock(TempBlock tempBlock) {
+        journal.add(tempBlock.world.getUID(), tempBlock.key, tempBlock.placed.getKey().toString(),
+                tempBlock.original.getAsString());
+    }
+
+    private void restoreBlock(TempBlock tempBlock) {
+        Block block = tempBlock.world.getBlockAt(unpackX(tempBlock.key), unpackY(tempBlock.key), unpackZ(tempBlock.key));
+        if (block.getType() == tempBlock.placed) {
+            block.setBlockData(tempBlock.original, false);
+        }
+    }
+
+    /**
+     * Put every pending block back now, ignoring the budget, used on disable.
+     * Queued placements are dropped, then the journal is written out and closed.
+     */
+    public void restoreAll() {
+        queue.clear();
+        for (Edit edit : journalled) {
+            Block block = edit.block;
+            journal.remove(edit.batch.world.getUID(), pack(block.getX(), block.getY(), block.getZ()));
+        }
+        journalled.clear();
+
+        for (Map<Long, TempBlock> worldBlocks : blocks.values()) {
+            for (TempBlock tempBlock : worldBlocks.values()) {
+                restoreBlock(tempBlock);
+                journal.remove(tempBlock.world.getUID(), tempBlock.key);
+            }
+        }
+        blocks.clear();
+        journal.shutdown();
+    }
+
+    // ============ JOURNAL ============
+
+    /**
+     * Restore blocks left behind by a previous run that stopped before its batches were restored.
+     * Entries for worlds that are not loaded stay in the journal for a later start.
+     */
+    private void replayJournal(List<String> lines) {
+        int restored = 0;
+        for (String line : lines) {
+            // + <world uuid> <packed position> <placed material> <original block data>
+            String[] parts = line.split(" ", 5);
+            if (parts.length != 5) continue;
+
+            try {
+                World world = Bukkit.getWorld(UUID.fromString(parts[1]));
+                if (world == null) {
+                    continue; // Keep it for a later start
+                }
+
+                long key = Long.parseLong(parts[2]);
+                if (temporaryBlockAt(world, key) != null) {
+                    continue; // Already taken over by a new batch, which journals and restores it
+                }
+
+                TempBlock tempBlock = new TempBlock(world, key, Bukkit.createBlockData(parts[4]));
+                tempBlock.placed = Material.matchMaterial(parts[3]);
+                if (tempBlock.placed != null) {
+                    restoreBlock(tempBlock);
+                    restored++;
+                }
+                journal.remove(world.getUID(), key);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping invalid temporary block entry: " + line);
+            }
+        }
+
+        if (restored > 0) {
+            plugin.getLogger().info("Restored " + restored + " temporary blocks left over from the last shutdown");
+        }
+    }
+
+    // ============ POSITION PACKING ============
+
+    // 26 bits x, 26 bits z, 12 bits y (same layout as vanilla block positions)
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFFL);
+    }
+
+    private static int unpackX(long key) {
+        return (int) (key >> 38);
+    }
+
+    private static int unpackY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    private static int unpackZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+}
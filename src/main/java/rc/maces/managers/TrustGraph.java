@@ -0,0 +1,182 @@
+package rc.maces.managers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mutual trust stored as undirected pairs of interned player ids.
+ * Every UUID that ever takes part in a trust gets a dense int id, each alliance is one
+ * canonical (low id, high id) pair packed into a long and kept in an open-addressing table,
+ * so a trust check is two id lookups plus one probe with no boxing or allocation.
+ * Pairs are symmetric by construction, so one-sided trust cannot exist in memory.
+ * Main thread only.
+ */
+class TrustGraph {
+
+    private static final long EMPTY = 0L; // Never a valid pair, the high id of a pair is always >= 1
+
+    private final Map<UUID, Integer> ids = new HashMap<>();
+    private final List<UUID> uuids = new ArrayList<>();
+    private long[] pairs = new long[16];
+    private int mask = 15;
+    private int size = 0;
+
+    /**
+     * Get the id for a UUID, assigning the next free one if it has none yet
+     */
+    int intern(UUID uuid) {
+        Integer id = ids.get(uuid);
+        if (id != null) return id;
+
+        int newId = uuids.size();
+        ids.put(uuid, newId);
+        uuids.add(uuid);
+        return newId;
+    }
+
+    /**
+     * Get the id for a UUID, or -1 if it was never interned (and therefore trusts nobody)
+     */
+    int idOf(UUID uuid) {
+        Integer id = ids.get(uuid);
+        return id != null ? id : -1;
+    }
+
+    UUID uuidOf(int id) {
+        return uuids.get(id);
+    }
+
+    boolean contains(int a, int b) {
+        if (a == b) return false;
+
+        long key = pack(a, b);
+        int index = hash(key) & mask;
+        long slot;
+        while ((slot = pairs[index]) != EMPTY) {
+            if (slot == key) return true;
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Add a pair, returns false if it was already present
+     */
+    boolean add(int a, int b) {
+        if (a == b) return false;
+
+        long key = pack(a, b);
+        int index = hash(key) & mask;
+        while (pairs[index] != EMPTY) {
+            if (pairs[index] == key) return false;
+            index = (index + 1) & mask;
+        }
+
+        pairs[index] = key;
+        if (++size * 2 > pairs.length) {
+            resize(pairs.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a pair, returns false if it was not present
+     */
+    boolean remove(int a, int b) {
+        if (a == b) return false;
+
+        long key = pack(a, b);
+        int index = hash(key) & mask;
+        while (pairs[index] != key) {
+            if (pairs[index] == EMPTY) return false;
+            index = (index + 1) & mask;
+        }
+
+        // Backward shift deletion keeps every probe chain intact without tombstones
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (pairs[next] != EMPTY) {
+            int home = hash(pairs[next]) & mask;
+            // Move the entry back if the hole lies between its home slot and where it sits now
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                pairs[hole] = pairs[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        pairs[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Ids paired with the given id, in no particular order (scans all pairs)
+     */
+    List<Integer> partnersOf(int id) {
+        List<Integer> partners = new ArrayList<>();
+        if (id < 0) return partners;
+
+        for (long pair : pairs) {
+            if (pair == EMPTY) continue;
+            int low = low(pair);
+            int high = high(pair);
+            if (low == id) partners.add(high);
+            else if (high == id) partners.add(low);
+        }
+        return partners;
+    }
+
+    /**
+     * Every stored pair as {low id, high id}
+     */
+    List<int[]> allPairs() {
+        List<int[]> result = new ArrayList<>(size);
+        for (long pair : pairs) {
+            if (pair != EMPTY) {
+                result.add(new int[]{low(pair), high(pair)});
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] old = pairs;
+        pairs = new long[capacity];
+        mask = capacity - 1;
+
+        for (long pair : old) {
+            if (pair == EMPTY) continue;
+            int index = hash(pair) & mask;
+            while (pairs[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            pairs[index] = pair;
+        }
+    }
+
+    private static long pack(int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    private static int low(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    private static int high(long pair) {
+        return (int) pair;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -9,21 +9,28 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
+import rc.maces.tasks.DeferredActionWheel;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Predicate;
 
 public class TrustManager {
 
     private final JavaPlugin plugin;
-    private final Map<UUID, Set<UUID>> trustRelations = new HashMap<>();
+    private final DeferredActionWheel deferredActionWheel;
+    private final TrustGraph trustGraph = new TrustGraph(); // Mutual trust as interned id pairs
+    private final AllyGroupManager allyGroups; // Shares the trust graph's interned ids
+    private int orphanedOnLoad = 0; // One-sided entries found in trust.yml
     private final Map<UUID, UUID> pendingTrustRequests = new HashMap<>();
+    private final Map<UUID, DeferredActionWheel.Handle> pendingRequestExpiries = new HashMap<>();
     private final File dataFile;
     private final FileConfiguration dataConfig;
 
-    public TrustManager(JavaPlugin plugin) {
+    public TrustManager(JavaPlugin plugin, DeferredActionWheel deferredActionWheel) {
         this.plugin = plugin;
+        this.deferredActionWheel = deferredActionWheel;
         this.dataFile = new File(plugin.getDataFolder(), "trust.yml");
         this.dataConfig = YamlConfiguration.loadConfiguration(dataFile);
 
@@ -33,6 +40,11 @@ public class TrustManager {
         }
 
         loadTrustData();
+        this.allyGroups = new AllyGroupManager(plugin, trustGraph, deferredActionWheel);
+    }
+
+    public AllyGroupManager getAllyGroups() {
+        return allyGroups;
     }
 
     /**
@@ -121,10 +133,11 @@ public class TrustManager {
                 .color(NamedTextColor.GOLD));
 
         // Auto-remove request after 60 seconds
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        DeferredActionWheel.Handle expiry = deferredActionWheel.schedule(1200L, () -> { // 60 seconds
             if (pendingTrustRequests.containsKey(target.getUniqueId()) &&
                     pendingTrustRequests.get(target.getUniqueId()).equals(requester.getUniqueId())) {
                 pendingTrustRequests.remove(target.getUniqueId());
+                pendingRequestExpiries.remove(target.getUniqueId());
                 if (target.isOnline()) {
                     target.sendMessage(Component.text("⏰ Trust request from " + requester.getName() + " has expired.")
                             .color(NamedTextColor.GRAY));
@@ -134,7 +147,19 @@ public class TrustManager {
                             .color(NamedTextColor.GRAY));
                 }
             }
-        }, 1200L); // 60 seconds
+        });
+        pendingRequestExpiries.put(target.getUniqueId(), expiry);
+    }
+
+    /**
+     * Remove a pending request and cancel its expiry
+     */
+    private void clearPendingRequest(UUID targetId) {
+        pendingTrustRequests.remove(targetId);
+        DeferredActionWheel.Handle expiry = pendingRequestExpiries.remove(targetId);
+        if (expiry != null) {
+            expiry.cancel();
+        }
     }
 
     /**
@@ -152,18 +177,15 @@ public class TrustManager {
         if (requester == null || !requester.isOnline()) {
             accepter.sendMessage(Component.text("❌ The player who sent the trust request is no longer online!")
                     .color(NamedTextColor.RED));
-            pendingTrustRequests.remove(accepter.getUniqueId());
+            clearPendingRequest(accepter.getUniqueId());
             return;
         }
 
         // Remove the pending request
-        pendingTrustRequests.remove(accepter.getUniqueId());
+        clearPendingRequest(accepter.getUniqueId());
 
-        // Add mutual trust with validation
-        boolean success1 = addTrust(requester.getUniqueId(), accepter.getUniqueId());
-        boolean success2 = addTrust(accepter.getUniqueId(), requester.getUniqueId());
-
-        if (!success1 || !success2) {
+        // Add mutual trust
+        if (!addTrust(requester.getUniqueId(), accepter.getUniqueId())) {
             plugin.getLogger().warning("Failed to establish trust between " + requester.getName() + " and " + accepter.getName());
         }
 
@@ -212,7 +234,7 @@ public class TrustManager {
         }
 
         Player requester = Bukkit.getPlayer(requesterUUID);
-        pendingTrustRequests.remove(denier.getUniqueId());
+        clearPendingRequest(denier.getUniqueId());
 
         denier.sendMessage(Component.text("❌ Trust request denied.")
                 .color(NamedTextColor.RED));
@@ -227,7 +249,12 @@ public class TrustManager {
      * Remove trust between two players (allows either player to break the alliance)
      */
     public void removeTrust(Player remover, Player target) {
-        if (!isTrusted(remover, target)) {
+        if (!isPairTrusted(remover.getUniqueId(), target.getUniqueId())) {
+            if (isTrusted(remover, target)) {
+                remover.sendMessage(Component.text("❌ " + target.getName() + " is in your ally group! Use /ally leave to leave the group.")
+                        .color(NamedTextColor.RED));
+                return;
+            }
             remover.sendMessage(Component.text("❌ You are not allied with " + target.getName() + "!")
                     .color(NamedTextColor.RED));
             return;
@@ -235,7 +262,6 @@ public class TrustManager {
 
         // Remove mutual trust
         removeTrustRelation(remover.getUniqueId(), target.getUniqueId());
-        removeTrustRelation(target.getUniqueId(), remover.getUniqueId());
 
         saveTrustData();
 
@@ -256,41 +282,63 @@ public class TrustManager {
      */
     public boolean isTrusted(Player player1, Player player2) {
         if (player1 == null || player2 == null) return false;
-        if (player1.equals(player2)) return false; // Players can't be allied with themselves
+        return isTrusted(player1.getUniqueId(), player2.getUniqueId());
+    }
 
-        boolean trust1to2 = isTrusted(player1.getUniqueId(), player2.getUniqueId());
-        boolean trust2to1 = isTrusted(player2.getUniqueId(), player1.getUniqueId());
+    /**
+     * Check if two players trust each other by UUID (works for offline players too).
+     * Players in the same ally group count as trusted without a pairwise alliance.
+     */
+    public boolean isTrusted(UUID player1, UUID player2) {
+        int id1 = trustGraph.idOf(player1);
+        int id2 = trustGraph.idOf(player2);
+        return id1 >= 0 && id2 >= 0 && id1 != id2
+                && (allyGroups.sameGroup(id1, id2) || trustGraph.contains(id1, id2));
+    }
 
-        // Debug logging for trust issues
-        if (trust1to2 != trust2to1) {
-            plugin.getLogger().warning("Asymmetric trust detected between " + player1.getName() + " and " + player2.getName()
-                    + " (" + trust1to2 + " vs " + trust2to1 + ")");
+    /**
+     * Resolve a caster's alliances once for a batch of checks (area abilities).
+     * The returned test answers isTrusted(caster, uuid) with one id lookup per candidate.
+     */
+    public Predicate<UUID> allyTest(UUID caster) {
+        int casterId = trustGraph.idOf(caster);
+        if (casterId < 0) {
+            return uuid -> false; // Never interned: no alliances and no group
         }
 
-        return trust1to2 && trust2to1;
+        int casterGroup = allyGroups.groupOf(casterId);
+        return uuid -> {
+            int id = trustGraph.idOf(uuid);
+            return id >= 0 && id != casterId
+                    && ((casterGroup != 0 && allyGroups.groupOf(id) == casterGroup) || trustGraph.contains(casterId, id));
+        };
+    }
+
+    /**
+     * Check only the pairwise /trust alliance, ignoring ally groups
+     */
+    private boolean isPairTrusted(UUID player1, UUID player2) {
+        int id1 = trustGraph.idOf(player1);
+        int id2 = trustGraph.idOf(player2);
+        return id1 >= 0 && id2 >= 0 && trustGraph.contains(id1, id2);
     }
 
     /**
      * Get list of trusted players for a player
      */
     public List<String> getTrustedPlayers(Player player) {
-        Set<UUID> trusted = trustRelations.get(player.getUniqueId());
         List<String> names = new ArrayList<>();
 
-        if (trusted != null) {
-            for (UUID uuid : trusted) {
-                Player trustedPlayer = Bukkit.getPlayer(uuid);
-                if (trustedPlayer != null) {
-                    // Verify mutual trust
-                    if (isTrusted(player, trustedPlayer)) {
-                        names.add(trustedPlayer.getName());
-                    }
-                } else {
-                    // Try to get offline player name
-                    String name = Bukkit.getOfflinePlayer(uuid).getName();
-                    if (name != null) {
-                        names.add(name + " (offline)");
-                    }
+        for (int partnerId : trustGraph.partnersOf(trustGraph.idOf(player.getUniqueId()))) {
+            UUID uuid = trustGraph.uuidOf(partnerId);
+            Player trustedPlayer = Bukkit.getPlayer(uuid);
+            if (trustedPlayer != null) {
+                names.add(trustedPlayer.getName());
+            } else {
+                // Try to get offline player name
+                String name = Bukkit.getOfflinePlayer(uuid).getName();
+                if (name != null) {
+                    names.add(name + " (offline)");
                 }
             }
         }
@@ -301,58 +349,56 @@ public class TrustManager {
 
     // Private helper methods
 
-    private boolean isTrusted(UUID player1, UUID player2) {
-        Set<UUID> trusted = trustRelations.get(player1);
-        return trusted != null && trusted.contains(player2);
-    }
-
     private boolean addTrust(UUID player1, UUID player2) {
-        try {
-            Set<UUID> trusted = trustRelations.computeIfAbsent(player1, k -> new HashSet<>());
-            return trusted.add(player2);
-        } catch (Exception e) {
-            plugin.getLogger().severe("Error adding trust relationship: " + e.getMessage());
-            return false;
-        }
+        return trustGraph.add(trustGraph.intern(player1), trustGraph.intern(player2));
     }
 
     private void removeTrustRelation(UUID player1, UUID player2) {
-        Set<UUID> trusted = trustRelations.get(player1);
-        if (trusted != null) {
-            trusted.remove(player2);
-            if (trusted.isEmpty()) {
-                trustRelations.remove(player1);
-            }
+        int id1 = trustGraph.idOf(player1);
+        int id2 = trustGraph.idOf(player2);
+        if (id1 >= 0 && id2 >= 0) {
+            trustGraph.remove(id1, id2);
         }
     }
 
+    /**
+     * trust.yml keeps the old per-player lists (both directions of every alliance).
+     * An alliance is only restored when both players list each other; one-sided
+     * entries are counted as orphans and dropped, all in a single pass.
+     */
     private void loadTrustData() {
         try {
             if (dataFile.exists()) {
+                Set<Long> oneSided = new HashSet<>(); // Directed (from id, to id) entries waiting for their reverse
                 int loadedRelations = 0;
+
                 for (String uuidString : dataConfig.getKeys(false)) {
                     try {
-                        UUID playerUUID = UUID.fromString(uuidString);
-                        List<String> trustedList = dataConfig.getStringList(uuidString);
-                        Set<UUID> trustedSet = new HashSet<>();
+                        int playerId = trustGraph.intern(UUID.fromString(uuidString));
 
-                        for (String trustedUuidString : trustedList) {
+                        for (String trustedUuidString : dataConfig.getStringList(uuidString)) {
                             try {
-                                trustedSet.add(UUID.fromString(trustedUuidString));
+                                int trustedId = trustGraph.intern(UUID.fromString(trustedUuidString));
+                                if (playerId == trustedId) continue;
+
+                                // Second direction seen: the alliance is mutual
+                                if (oneSided.remove(directed(trustedId, playerId))) {
+                                    trustGraph.add(playerId, trustedId);
+                                    loadedRelations++;
+                                } else {
+                                    oneSided.add(directed(playerId, trustedId));
+                                }
                             } catch (IllegalArgumentException e) {
                                 plugin.getLogger().warning("Invalid trusted UUID: " + trustedUuidString);
                             }
                         }
-
-                        if (!trustedSet.isEmpty()) {
-                            trustRelations.put(playerUUID, trustedSet);
-                            loadedRelations++;
-                        }
                     } catch (IllegalArgumentException e) {
                         plugin.getLogger().warning("Invalid player UUID in trust.yml: " + uuidString);
                     }
                 }
-                plugin.getLogger().info("Loaded " + loadedRelations + " trust relationships from file.");
+
+                orphanedOnLoad = oneSided.size();
+                plugin.getLogger().info("Loaded " + loadedRelations + " alliances from file.");
             } else {
                 plugin.getLogger().info("No trust data file found, starting fresh.");
             }
@@ -361,6 +407,10 @@ public class TrustManager {
         }
     }
 
+    private static long directed(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
     private void saveTrustData() {
         try {
             // Clear existing data
@@ -368,14 +418,18 @@ public class TrustManager {
                 dataConfig.set(key, null);
             }
 
-            // Save current data
+            // Expand each alliance into both players' lists (same file format as before)
+            Map<UUID, List<String>> trustedLists = new HashMap<>();
+            for (int[] pair : trustGraph.allPairs()) {
+                UUID first = trustGraph.uuidOf(pair[0]);
+                UUID second = trustGraph.uuidOf(pair[1]);
+                trustedLists.computeIfAbsent(first, k -> new ArrayList<>()).add(second.toString());
+                trustedLists.computeIfAbsent(second, k -> new ArrayList<>()).add(first.toString());
+            }
+
             int savedRelations = 0;
-            for (Map.Entry<UUID, Set<UUID>> entry : trustRelations.entrySet()) {
-                List<String> trustedList = new ArrayList<>();
-                for (UUID trustedUUID : entry.getValue()) {
-                    trustedList.add(trustedUUID.toString());
-                }
-                dataConfig.set(entry.getKey().toString(), trustedList);
+            for (Map.Entry<UUID, List<String>> entry : trustedLists.entrySet()) {
+                dataConfig.set(entry.getKey().toString(), entry.getValue());
                 savedRelations++;
             }
 
@@ -403,14 +457,7 @@ public class TrustManager {
 
         // Return false if they are trusted allies (ability should be blocked)
         // Return true if they are not allies (ability is allowed)
-        boolean areTrusted = isTrusted(caster, target);
-
-        // Debug logging
-        if (areTrusted) {
-            plugin.getLogger().info("Blocking ability from " + caster.getName() + " to " + target.getName() + " (trusted allies)");
-        }
-
-        return !areTrusted;
+        return !isTrusted(caster, target);
     }
 
     /**
@@ -421,50 +468,23 @@ public class TrustManager {
     }
 
     /**
-     * Get the total number of trust relationships (for debugging)
+     * Get the total number of trust relationships (for debugging).
+     * Counted per direction like the old per-player lists, so each alliance counts twice.
      */
     public int getTotalTrustRelationships() {
-        return trustRelations.values().stream().mapToInt(Set::size).sum();
+        return trustGraph.size() * 2;
     }
 
     /**
-     * Clean up any orphaned trust relationships (where one side trusts but the other doesn't)
-     * This can help fix trust system issues
+     * Clean up any orphaned trust relationships (where one side trusts but the other doesn't).
+     * Alliances are stored as mutual pairs, so orphans can only come from trust.yml; they are
+     * detected while loading and removed from the file here by saving it again.
      */
     public void cleanupOrphanedTrusts() {
-        Map<UUID, Set<UUID>> toRemove = new HashMap<>();
-        int cleanedCount = 0;
-
-        for (Map.Entry<UUID, Set<UUID>> entry : trustRelations.entrySet()) {
-            UUID player1 = entry.getKey();
-            Set<UUID> trustedByPlayer1 = entry.getValue();
-
-            for (UUID player2 : new HashSet<>(trustedByPlayer1)) {
-                // Check if player2 also trusts player1
-                Set<UUID> trustedByPlayer2 = trustRelations.get(player2);
-                if (trustedByPlayer2 == null || !trustedByPlayer2.contains(player1)) {
-                    // Orphaned relationship - remove it
-                    toRemove.computeIfAbsent(player1, k -> new HashSet<>()).add(player2);
-                    cleanedCount++;
-                    plugin.getLogger().info("Cleaning orphaned trust: " + player1 + " -> " + player2);
-                }
-            }
-        }
-
-        // Remove orphaned relationships
-        for (Map.Entry<UUID, Set<UUID>> entry : toRemove.entrySet()) {
-            Set<UUID> currentTrusted = trustRelations.get(entry.getKey());
-            if (currentTrusted != null) {
-                currentTrusted.removeAll(entry.getValue());
-                if (currentTrusted.isEmpty()) {
-                    trustRelations.remove(entry.getKey());
-                }
-            }
-        }
-
-        if (cleanedCount > 0) {
+        if (orphanedOnLoad > 0) {
             saveTrustData();
-            plugin.getLogger().info("Cleaned up " + cleanedCount + " orphaned trust relationships");
+            plugin.getLogger().info("Cleaned up " + orphanedOnLoad + " orphaned trust relationships");
+            orphanedOnLoad = 0;
         } else {
             plugin.getLogger().info("No orphaned trust relationships found");
         }
@@ -472,6 +492,7 @@ public class TrustManager {
 
     public void saveAllData() {
         saveTrustData();
+        allyGroups.saveAllData();
         plugin.getLogger().info("Saved all trust data to file.");
     }
 }
\ No newline at end of file
@@ -3,105 +3,200 @@ package rc.maces.tasks;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
-import org.bukkit.Bukkit;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import rc.maces.abilities.AbilityManager;
+import rc.maces.managers.CooldownManager;
+import rc.maces.managers.HeldMaceState;
+import rc.maces.managers.HudMode;
 import rc.maces.managers.MaceManager;
+import rc.maces.managers.MaceType;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Shows mace ability cooldowns in the action bar.
+ * The bar is only sent when a holder's (mace type, ability 1 seconds, ability 2 seconds)
+ * changes, plus a keep-alive resend so it does not fade. Rendered bars are cached by that tuple.
+ * In COOLDOWN_OVERLAY mode the right-click ability is drawn by the client on the mace,
+ * so the bar is only sent while the F-key ability is cooling down.
+ */
 public class ActionBarTask extends BukkitRunnable {
 
+    // The client fades the action bar after ~3 seconds, so resend a bit before that
+    private static final int KEEP_ALIVE_TICKS = 40;
+    private static final int MAX_CACHED_BARS = 256;
+
     private final MaceManager maceManager;
+    private final CooldownManager cooldownManager;
+    private final boolean overlayMode;
+    private final int[] ability1Ids = new int[MaceType.values().length];
+    private final int[] ability2Ids = new int[MaceType.values().length];
+    private final Map<UUID, HudState> hudStates = new HashMap<>();
+    private final Map<Long, Component> barCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Component> eldest) {
+            return size() > MAX_CACHED_BARS;
+        }
+    };
+    private long currentTick = 0;
+
+    // Last bar sent to a player
+    private static class HudState {
+        long lastKey = -1;
+        long lastSentTick;
+        long lastSeenTick;
+    }
+
+    // Static display data for each mace type
+    private static class MaceBar {
+        final String label;
+        final NamedTextColor color;
+        final String ability1Key;
+        final String ability1Name;
+        final String ability2Key;
+        final String ability2Name;
+
+        MaceBar(String label, NamedTextColor color, String ability1Key, String ability1Name,
+                String ability2Key, String ability2Name) {
+            this.label = label;
+            this.color = color;
+            this.ability1Key = ability1Key;
+            this.ability1Name = ability1Name;
+            this.ability2Key = ability2Key;
+            this.ability2Name = ability2Name;
+        }
+    }
+
+    private static final MaceBar[] BARS = new MaceBar[MaceType.values().length];
+
+    static {
+        BARS[MaceType.AIR.ordinal()] = new MaceBar("Air", NamedTextColor.WHITE,
+                AbilityManager.WIND_SHOT, "Wind Shot", AbilityManager.WIND_STRUCK, "Wind Struck");
+        BARS[MaceType.FIRE.ordinal()] = new MaceBar("Fire", NamedTextColor.RED,
+                AbilityManager.OBSIDIAN_CREATION, "Obsidian Creation", AbilityManager.METEORS, "Meteors");
+        BARS[MaceType.WATER.ordinal()] = new MaceBar("Water", NamedTextColor.DARK_BLUE,
+                AbilityManager.WATER_HEAL, "Water Heal", AbilityManager.WATER_GEYSER, "Water Geyser");
+        BARS[MaceType.EARTH.ordinal()] = new MaceBar("Earth", NamedTextColor.GREEN,
+                AbilityManager.BUDDY_UP, "Buddy Up", AbilityManager.VINE_TRAP, "Vine Trap");
+    }
 
     public ActionBarTask(MaceManager maceManager) {
         this.maceManager = maceManager;
+        this.cooldownManager = maceManager.getCooldownManager();
+        this.overlayMode = maceManager.getHudMode() == HudMode.COOLDOWN_OVERLAY;
+
+        // Resolve cooldown ordinals once so the per-tick reads need no string keys
+        AbilityManager abilityManager = maceManager.getAbilityManager();
+        for (MaceType type : MaceType.values()) {
+            MaceBar bar = BARS[type.ordinal()];
+            ability1Ids[type.ordinal()] = bar != null ? abilityManager.getAbilityId(bar.ability1Key) : -1;
+            ability2Ids[type.ordinal()] = bar != null ? abilityManager.getAbilityId(bar.ability2Key) : -1;
+        }
     }
 
     @Override
     public void run() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            ItemStack mainHand = player.getInventory().getItemInMainHand();
+        currentTick++;
 
-            if (mainHand.getType() == Material.MACE && maceManager.isCustomMace(mainHand)) {
-                displayMaceActionBar(player, mainHand);
+        for (HeldMaceState state : maceManager.getHeldMaceTracker().getHolders()) {
+            MaceType type = state.getMainHand();
+
+            if (type.isMace()) {
+                displayMaceActionBar(state.getPlayer(), type);
+            }
+        }
+
+        // Forget players who stopped holding a mace, so the bar shows immediately when they pick one up again
+        Iterator<HudState> iterator = hudStates.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().lastSeenTick != currentTick) {
+                iterator.remove();
             }
         }
     }
 
-    private void displayMaceActionBar(Player player, ItemStack mace) {
+    private void displayMaceActionBar(Player player, MaceType type) {
         UUID playerId = player.getUniqueId();
-        Component actionBar = null;
-
-        if (maceManager.isAirMace(mace)) {
-            actionBar = createActionBar("Air", NamedTextColor.WHITE, NamedTextColor.GRAY,
-                    "Wind Shot", getAbilityStatus(playerId, AbilityManager.WIND_SHOT),
-                    "Wind Struck", getAbilityStatus(playerId, AbilityManager.WIND_STRUCK));
-        } else if (maceManager.isFireMace(mace)) {
-            actionBar = createActionBar("Fire", NamedTextColor.RED, NamedTextColor.GOLD,
-                    "Obsidian Creation", getAbilityStatus(playerId, AbilityManager.OBSIDIAN_CREATION),
-                    "Meteors", getAbilityStatus(playerId, AbilityManager.METEORS));
-        } else if (maceManager.isWaterMace(mace)) {
-            actionBar = createActionBar("Water", NamedTextColor.DARK_BLUE, NamedTextColor.BLUE,
-                    "Water Heal", getAbilityStatus(playerId, AbilityManager.WATER_HEAL),
-                    "Water Geyser", getAbilityStatus(playerId, AbilityManager.WATER_GEYSER));
-        } else if (maceManager.isEarthMace(mace)) {
-            actionBar = createActionBar("Earth", NamedTextColor.GREEN, NamedTextColor.DARK_GREEN,
-                    "Buddy Up", getAbilityStatus(playerId, AbilityManager.BUDDY_UP),
-                    "Vine Trap", getAbilityStatus(playerId, AbilityManager.VINE_TRAP)); // CHANGED: Display name to "Vine Trap"
+        MaceBar bar = BARS[type.ordinal()];
+
+        int ability2Seconds = getRemainingSeconds(playerId, ability2Ids[type.ordinal()]);
+        if (overlayMode && ability2Seconds == 0) {
+            return; // Nothing the client is not already drawing
         }
 
-        if (actionBar != null) {
-            player.sendActionBar(actionBar);
+        // The overlay shows the right-click cooldown, so it is left out of the bar (and the key)
+        int ability1Seconds = overlayMode ? 0 : getRemainingSeconds(playerId, ability1Ids[type.ordinal()]);
+        long key = createKey(type, ability1Seconds, ability2Seconds);
+
+        HudState hud = hudStates.computeIfAbsent(playerId, id -> new HudState());
+        hud.lastSeenTick = currentTick;
+
+        if (hud.lastKey == key && currentTick - hud.lastSentTick < KEEP_ALIVE_TICKS) {
+            return; // Nothing changed and the bar is still visible
         }
+
+        Component actionBar = barCache.get(key);
+        if (actionBar == null) {
+            actionBar = overlayMode
+                    ? createOverlayActionBar(bar, ability2Seconds)
+                    : createActionBar(bar, ability1Seconds, ability2Seconds);
+            barCache.put(key, actionBar);
+        }
+
+        player.sendActionBar(actionBar);
+        hud.lastKey = key;
+        hud.lastSentTick = currentTick;
     }
 
-    private Component createActionBar(String maceType, NamedTextColor primaryColor, NamedTextColor secondaryColor,
-                                      String ability1Name, String ability1Status,
-                                      String ability2Name, String ability2Status) {
-        return Component.text(maceType + " Mace")
-                .color(primaryColor)
+    /**
+     * Pack the rendered tuple into one long: type in the top bits, then both cooldowns
+     */
+    private static long createKey(MaceType type, int ability1Seconds, int ability2Seconds) {
+        return ((long) type.ordinal() << 48)
+                | ((long) (ability1Seconds & 0xFFFFFF) << 24)
+                | (ability2Seconds & 0xFFFFFF);
+    }
+
+    private Component createActionBar(MaceBar bar, int ability1Seconds, int ability2Seconds) {
+        return Component.text(bar.label + " Mace")
+                .color(bar.color)
                 .decoration(TextDecoration.BOLD, true)
                 .append(Component.text(" | ")
                         .color(NamedTextColor.DARK_GRAY))
-                .append(parseAbilityComponent(ability1Status, ability1Name))
+                .append(createAbilityComponent(bar.ability1Name, ability1Seconds))
                 .append(Component.text(" | ")
                         .color(NamedTextColor.DARK_GRAY))
-                .append(parseAbilityComponent(ability2Status, ability2Name));
+                .append(createAbilityComponent(bar.ability2Name, ability2Seconds));
     }
 
-    private Component createSingleAbilityActionBar(String maceType, NamedTextColor primaryColor,
-                                                   String abilityName, String abilityStatus) {
-        return Component.text(maceType + " Mace")
-                .color(primaryColor)
+    private Component createOverlayActionBar(MaceBar bar, int ability2Seconds) {
+        return Component.text(bar.label + " Mace")
+                .color(bar.color)
                 .decoration(TextDecoration.BOLD, true)
                 .append(Component.text(" | ")
                         .color(NamedTextColor.DARK_GRAY))
-                .append(parseAbilityComponent(abilityStatus, abilityName));
+                .append(createAbilityComponent(bar.ability2Name, ability2Seconds));
     }
 
-    private String getAbilityStatus(UUID playerId, String abilityKey) {
-        if (maceManager.getCooldownManager().isOnCooldown(playerId, abilityKey)) {
-            long remainingMs = maceManager.getCooldownManager().getRemainingCooldown(playerId, abilityKey);
-            int seconds = (int) Math.ceil(remainingMs / 1000.0);
-            return "COOLDOWN:" + seconds;
-        }
-        return "READY";
+    /**
+     * Remaining cooldown in whole seconds (rounded up), 0 when ready
+     */
+    private int getRemainingSeconds(UUID playerId, int abilityId) {
+        long remainingMs = cooldownManager.getRemainingCooldown(playerId, abilityId);
+        return remainingMs <= 0 ? 0 : (int) ((remainingMs + 999) / 1000);
     }
 
-    private Component parseAbilityComponent(String status, String abilityName) {
-        if (status.equals("READY")) {
+    private Component createAbilityComponent(String abilityName, int seconds) {
+        if (seconds <= 0) {
             return Component.text(abilityName + ": Ready")
                     .color(NamedTextColor.GREEN);
-        } else if (status.startsWith("COOLDOWN:")) {
-            String seconds = status.substring("COOLDOWN:".length());
-            return Component.text(abilityName + ": " + seconds + "s")
-                    .color(NamedTextColor.RED);
         }
-        return Component.text(abilityName + ": Unknown")
-                .color(NamedTextColor.GRAY);
+        return Component.text(abilityName + ": " + seconds + "s")
+                .color(NamedTextColor.RED);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package rc.maces.tasks;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Plugin-wide hierarchical timer wheel for one-shot delayed actions
+ * (block reverts, meteor impacts, request expiries...).
+ * One repeating task advances it once per tick, so the Bukkit scheduler only ever
+ * sees a single task no matter how many actions are pending.
+ *
+ * Four levels of 64 slots cover 64^4 ticks (~9.7 days); longer delays wait in an overflow list.
+ * Scheduling and cancelling are O(1), each tick only touches the actions that are due
+ * plus the occasional cascade of one higher-level slot.
+ * Main thread only.
+ */
+public class DeferredActionWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final JavaPlugin plugin;
+    @SuppressWarnings("unchecked")
+    private final List<Handle>[][] wheel = new List[LEVELS][SLOTS];
+    private final List<Handle> overflow = new ArrayList<>();
+    private List<Handle> spare = new ArrayList<>();
+    private long currentTick = 0;
+    private int pending = 0;
+
+    /**
+     * Cancellation handle for a scheduled action
+     */
+    public static final class Handle {
+        private Runnable action;
+        private final long deadline;
+        private boolean cancelled;
+
+        private Handle(Runnable action, long deadline) {
+            this.action = action;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the action if it has not run yet
+         */
+        public void cancel() {
+            cancelled = true;
+            action = null;
+        }
+
+        public boolean isPending() {
+            return !cancelled && action != null;
+        }
+    }
+
+    public DeferredActionWheel(JavaPlugin plugin) {
+        this.plugin = plugin;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[level][slot] = new ArrayList<>();
+            }
+        }
+    }
+
+    /**
+     * Start advancing the wheel once per tick
+     */
+    public void start() {
+        plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Run an action after the given number of ticks (at least 1)
+     */
+    public Handle schedule(long delayTicks, Runnable action) {
+        Handle handle = new Handle(action, currentTick + Math.max(1L, delayTicks));
+        place(handle);
+        pending++;
+        return handle;
+    }
+
+    /**
+     * Number of scheduled actions, including cancelled ones not yet swept
+     */
+    public int getPendingCount() {
+        return pending;
+    }
+
+    private void place(Handle handle) {
+        long delta = handle.deadline - currentTick;
+
+        if (delta >= MAX_SPAN) {
+            overflow.add(handle);
+            return;
+        }
+
+        int level = 0;
+        while (delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        int slot = (int) ((handle.deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        wheel[level][slot].add(handle);
+    }
+
+    private void tick() {
+        currentTick++;
+
+        // Each time a lower level wraps around, pull the next slot of the level above down
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                break;
+            }
+            cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+
+            if (level == LEVELS - 1 && (currentTick & (MAX_SPAN - 1)) == 0) {
+                // Top level wrapped, overflow actions may now fit
+                List<Handle> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(this::place);
+            }
+        }
+
+        List<Handle> slot = wheel[0][(int) (currentTick & SLOT_MASK)];
+        if (slot.isEmpty()) return;
+
+        // Swap the slot out so actions can schedule new ones while we run
+        List<Handle> due = slot;
+        wheel[0][(int) (currentTick & SLOT_MASK)] = spare;
+
+        for (Handle handle : due) {
+            pending--;
+            Runnable action = handle.action;
+            if (handle.cancelled || action == null) continue;
+
+            handle.action = null;
+            try {
+                action.run();
+            } catch (Throwable throwable) {
+                plugin.getLogger().log(Level.WARNING, "Deferred action threw an exception", throwable);
+            }
+        }
+
+        due.clear();
+        spare = due;
+    }
+
+    private void cascade(int level, int slotIndex) {
+        List<Handle> slot = wheel[level][slotIndex];
+        if (slot.isEmpty()) return;
+
+        wheel[level][slotIndex] = new ArrayList<>();
+        for (Handle handle : slot) {
+            if (handle.cancelled) {
+                pending--;
+                continue;
+            }
+            place(handle);
+        }
+    }
+}
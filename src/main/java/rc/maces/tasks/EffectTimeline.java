@@ -0,0 +1,75 @@
+package rc.maces.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keyframes of a timed ability effect, e.g. "every 5 ticks for 40 ticks: launch hostiles".
+ * Built once per cast and started with EffectTimelineEngine.play.
+ * Tick 0 is the first tick after the timeline is played, like runTaskTimer(plugin, 0L, period).
+ */
+public final class EffectTimeline {
+
+    final List<Track> tracks = new ArrayList<>();
+
+    /**
+     * Run once, the given number of ticks into the timeline
+     */
+    public EffectTimeline at(long tick, Consumer<EffectTimelineEngine.Playback> action) {
+        return add(tick, 1, tick + 1, action);
+    }
+
+    /**
+     * Run every period ticks from tick 0 while fewer than duration ticks have passed
+     */
+    public EffectTimeline every(long period, long duration, Consumer<EffectTimelineEngine.Playback> action) {
+        return add(0, period, duration, action);
+    }
+
+    /**
+     * Run every period ticks from startTick while below endTick
+     */
+    public EffectTimeline during(long startTick, long endTick, long period, Consumer<EffectTimelineEngine.Playback> action) {
+        return add(startTick, period, endTick, action);
+    }
+
+    /**
+     * Run every period ticks from tick 0 until the playback is cancelled
+     */
+    public EffectTimeline repeat(long period, Consumer<EffectTimelineEngine.Playback> action) {
+        return add(0, period, Long.MAX_VALUE, action);
+    }
+
+    private EffectTimeline add(long start, long period, long end, Consumer<EffectTimelineEngine.Playback> action) {
+        tracks.add(new Track(Math.max(0, start), Math.max(1, period), end, action));
+        return this;
+    }
+
+    // One keyframe series: fires at start, start + period, ... while below end
+    static final class Track {
+        final long start;
+        final long period;
+        final long end;
+        final Consumer<EffectTimelineEngine.Playback> action;
+
+        Track(long start, long period, long end, Consumer<EffectTimelineEngine.Playback> action) {
+            this.start = start;
+            this.period = period;
+            this.end = end;
+            this.action = action;
+        }
+
+        boolean firesAt(long tick) {
+            return tick >= start && tick < end && (tick - start) % period == 0;
+        }
+
+        /**
+         * First tick at or after the given one this track fires on, or -1 if it is done
+         */
+        long nextAt(long tick) {
+            long next = tick <= start ? start : start + ((tick - start + period - 1) / period) * period;
+            return next < end ? next : -1;
+        }
+    }
+}
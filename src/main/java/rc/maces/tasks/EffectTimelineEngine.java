@@ -0,0 +1,123 @@
+package rc.maces.tasks;
+
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Plays ability effect timelines without a BukkitRunnable per cast.
+ * Each playback only books its next keyframe on the deferred action wheel, so all active casts
+ * are advanced by the wheel's single tick task and the ticks between keyframes cost nothing.
+ * Main thread only.
+ */
+public class EffectTimelineEngine {
+
+    private final JavaPlugin plugin;
+    private final DeferredActionWheel wheel;
+    private int active = 0;
+
+    public EffectTimelineEngine(JavaPlugin plugin, DeferredActionWheel wheel) {
+        this.plugin = plugin;
+        this.wheel = wheel;
+    }
+
+    /**
+     * Start a timeline, its tick 0 keyframes run on the next tick
+     */
+    public Playback play(EffectTimeline timeline) {
+        Playback playback = new Playback(List.copyOf(timeline.tracks));
+        active++;
+        playback.scheduleAfter(-1);
+        return playback;
+    }
+
+    /**
+     * Number of timelines still playing
+     */
+    public int getActiveCount() {
+        return active;
+    }
+
+    /**
+     * A running timeline, handed to every keyframe so it can stop the effect early
+     */
+    public final class Playback {
+        private final List<EffectTimeline.Track> tracks;
+        private DeferredActionWheel.Handle next;
+        private long elapsed = -1;
+        private boolean finished;
+
+        private Playback(List<EffectTimeline.Track> tracks) {
+            this.tracks = tracks;
+        }
+
+        /**
+         * Ticks since the timeline started, of the keyframe currently running
+         */
+        public long getElapsed() {
+            return elapsed;
+        }
+
+        public boolean isActive() {
+            return !finished;
+        }
+
+        /**
+         * Stop the timeline, no further keyframes run (including the rest of this tick's)
+         */
+        public void cancel() {
+            if (finished) return;
+            if (next != null) {
+                next.cancel();
+                next = null;
+            }
+            finish();
+        }
+
+        private void advance(long tick) {
+            next = null;
+            elapsed = tick;
+
+            for (EffectTimeline.Track track : tracks) {
+                if (finished) return;
+                if (!track.firesAt(tick)) continue;
+
+                try {
+                    track.action.accept(this);
+                } catch (Throwable throwable) {
+                    plugin.getLogger().log(Level.WARNING, "Effect timeline keyframe threw an exception", throwable);
+                    cancel();
+                    return;
+                }
+            }
+
+            if (!finished) {
+                scheduleAfter(tick);
+            }
+        }
+
+        private void scheduleAfter(long tick) {
+            long nextTick = -1;
+            for (EffectTimeline.Track track : tracks) {
+                long candidate = track.nextAt(tick + 1);
+                if (candidate >= 0 && (nextTick < 0 || candidate < nextTick)) {
+                    nextTick = candidate;
+                }
+            }
+
+            if (nextTick < 0) {
+                finish(); // Every track is done
+                return;
+            }
+
+            long dueTick = nextTick;
+            next = wheel.schedule(dueTick - tick, () -> advance(dueTick));
+        }
+
+        private void finish() {
+            finished = true;
+            active--;
+        }
+    }
+}